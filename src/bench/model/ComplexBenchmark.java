@@ -0,0 +1,60 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// measures the throughput of complex arithmetic and of parsing and formatting complex numbers as text
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplexBenchmark {
+
+    private Complex first;
+    private Complex second;
+    private ComplexString formatter;
+
+    @Setup
+    public void setUp() {
+        first = new Complex(0.6, -1.2);
+        second = new Complex(-2.5, 0.4);
+        formatter = new ComplexString(new Complex(1.25, -0.5));
+    }
+
+    @Benchmark
+    public Complex plus() {
+        return first.plus(second);
+    }
+
+    @Benchmark
+    public Complex times() {
+        return first.times(second);
+    }
+
+    @Benchmark
+    public double absoluteValue() {
+        return first.absoluteValue();
+    }
+
+    @Benchmark
+    public Complex parse() {
+        return new Complex("1.25 + -0.5i");
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.toString();
+    }
+}
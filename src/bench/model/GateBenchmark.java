@@ -0,0 +1,50 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// measures the throughput of applying a gate to a single state and of finding its eigenstates, both for a new gate
+// and for one whose eigenstates have already been worked out
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GateBenchmark {
+
+    private Gate gate;
+    private model.State state;
+
+    @Setup
+    public void setUp() {
+        gate = new Gate(0.3, -0.5, 0.8);
+        state = new model.State(new Complex(1, 2), new Complex(-1, 0.5));
+        gate.getEigenState(true);
+    }
+
+    @Benchmark
+    public model.State multiply() {
+        return gate.multiply(state);
+    }
+
+    @Benchmark
+    public model.State eigenStateCached() {
+        return gate.getEigenState(true);
+    }
+
+    @Benchmark
+    public model.State eigenStateNewGate() {
+        return new Gate(0.3, -0.5, 0.8).getEigenState(true);
+    }
+}
@@ -0,0 +1,75 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// measures the throughput of the operations on a qubit for qubits of different numbers of states
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QubitBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int states;
+
+    private Qubit qubit;
+    private Gate gate;
+    private model.State extra;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(210);
+        qubit = new Qubit();
+        qubit.setSeed(210);
+        for (int i = 0; i < states; i++) {
+            qubit.addState(random.nextGaussian(), random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian());
+        }
+        gate = new Gate(0.3, -0.5, 0.8);
+        extra = new model.State(new Complex(0.25, 0.5), new Complex(-0.75, 1));
+    }
+
+    @Benchmark
+    public Qubit addAndRemoveState() throws Exception {
+        qubit.addState(extra);
+        qubit.removeState(extra);
+        return qubit;
+    }
+
+    @Benchmark
+    public Qubit transform() {
+        qubit.transform(gate);
+        return qubit;
+    }
+
+    @Benchmark
+    public Qubit measure() {
+        return qubit.measure();
+    }
+
+    @Benchmark
+    public double measureProbability() {
+        return qubit.measureProbability(gate, true);
+    }
+
+    @Benchmark
+    public double measureExpectationValue() {
+        return qubit.measureExpectationValue(gate);
+    }
+}
@@ -0,0 +1,87 @@
+package persistence;
+
+import model.Qubit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// measures the throughput of saving and loading qubits of different numbers of states, in both formats
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QubitFileBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int states;
+
+    private Qubit qubit;
+    private File binary;
+    private File json;
+    private File scratch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(210);
+        qubit = new Qubit();
+        for (int i = 0; i < states; i++) {
+            qubit.addState(random.nextGaussian(), random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian());
+        }
+        binary = Files.createTempFile("qubit", ".bin").toFile();
+        json = Files.createTempFile("qubit", ".json").toFile();
+        scratch = Files.createTempFile("qubit", ".tmp").toFile();
+        QubitFile.save(qubit, binary);
+        QubitFile.saveJson(qubit, json);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        binary.delete();
+        //noinspection ResultOfMethodCallIgnored
+        json.delete();
+        //noinspection ResultOfMethodCallIgnored
+        scratch.delete();
+    }
+
+    @Benchmark
+    public File saveBinary() throws IOException {
+        QubitFile.save(qubit, scratch);
+        return scratch;
+    }
+
+    @Benchmark
+    public File saveJson() throws IOException {
+        QubitFile.saveJson(qubit, scratch);
+        return scratch;
+    }
+
+    @Benchmark
+    public Qubit loadBinary() throws IOException {
+        return QubitFile.load(binary);
+    }
+
+    @Benchmark
+    public Qubit loadJson() throws IOException {
+        return QubitFile.load(json);
+    }
+}
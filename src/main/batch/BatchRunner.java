@@ -0,0 +1,83 @@
+package batch;
+
+import exceptions.InvalidJobException;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+// runs the jobs of a job file one after another without a user interface, writing their results to a file. all the
+// jobs run in the same JVM, so after the first few the code they use has been compiled and they run at full speed.
+//     java batch.BatchRunner [jobs file | -] [results file | -]
+// "-" or a missing argument stands for standard input or output. see JobParser for the format of a job file.
+public class BatchRunner {
+
+    private long jobCount;
+    private long elapsedNanos;
+
+    //getters
+    public long getJobCount() {
+        return jobCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    //EFFECTS: returns the number of jobs run per second
+    public double getJobsPerSecond() {
+        return elapsedNanos == 0 ? 0 : jobCount * 1e9 / elapsedNanos;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: reads and runs the jobs from in one at a time, writing their results to out, and returns the number of
+    //         jobs run
+    //         throws InvalidJobException if a job can't be read; the jobs before it have been run
+    public long run(Reader in, PrintWriter out) throws IOException, InvalidJobException {
+        JobParser parser = new JobParser(in);
+        long start = System.nanoTime();
+        long count = 0;
+        try {
+            Job job = parser.next();
+            while (job != null) {
+                job.run(out);
+                count++;
+                job = parser.next();
+            }
+        } finally {
+            out.flush();
+            jobCount += count;
+            elapsedNanos += System.nanoTime() - start;
+        }
+        return count;
+    }
+
+    public static void main(String[] args) {
+        String jobs = args.length > 0 ? args[0] : "-";
+        String results = args.length > 1 ? args[1] : "-";
+        BatchRunner runner = new BatchRunner();
+        boolean failed = false;
+        try (InputStream in = jobs.equals("-") ? System.in : new FileInputStream(jobs);
+             OutputStream outStream = results.equals("-") ? System.out : new FileOutputStream(results);
+             PrintWriter out = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(outStream, StandardCharsets.UTF_8)))) {
+            runner.run(new InputStreamReader(in, StandardCharsets.UTF_8), out);
+        } catch (IOException | InvalidJobException e) {
+            System.err.println(e.getMessage());
+            failed = true;
+        }
+        System.err.printf("%d jobs in %.3f s (%.1f jobs/s)%n", runner.getJobCount(),
+                runner.getElapsedNanos() / 1e9, runner.getJobsPerSecond());
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package batch;
+
+import model.Circuit;
+import model.Qubit;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// a job read from a job file: a qubit, a circuit of transforms and measurements recorded on it, and the lines of
+// output the measurements give once the circuit has been run
+public class Job {
+
+    private final String name;
+    private final Qubit qubit;
+    private final Circuit circuit;
+    private final List<String> labels;
+    private final List<Supplier<String>> outputs;
+
+    //EFFECTS: constructs a job with the given name acting on the given qubit, with nothing recorded yet
+    public Job(String name, Qubit qubit) {
+        this.name = name;
+        this.qubit = qubit;
+        this.circuit = new Circuit(qubit);
+        this.labels = new ArrayList<>();
+        this.outputs = new ArrayList<>();
+    }
+
+    //getters
+    public String getName() {
+        return name;
+    }
+
+    public Qubit getQubit() {
+        return qubit;
+    }
+
+    public Circuit getCircuit() {
+        return circuit;
+    }
+
+    //EFFECTS: returns the number of lines of output this job gives
+    public int getOutputCount() {
+        return outputs.size();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: records a line of output with the given label, worked out when the job is run
+    public void addOutput(String label, Supplier<String> output) {
+        labels.add(label);
+        outputs.add(output);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: runs the circuit and writes a line for each output, made of the job's name, the output's label and its
+    //         value, separated by tabs
+    public void run(PrintWriter out) {
+        circuit.run();
+        for (int i = 0; i < outputs.size(); i++) {
+            out.print(name);
+            out.print('\t');
+            out.print(labels.get(i));
+            out.print('\t');
+            out.println(outputs.get(i).get());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package batch;
+
+import exceptions.InvalidJobException;
+import model.Circuit;
+import model.Gate;
+import model.Qubit;
+import persistence.QubitFile;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+// reads jobs one at a time from a job file. each line is one instruction, and blank lines and lines starting with
+// "#" are skipped:
+//     job <name>                     starts a new job; optional for the first one
+//     seed <n>                       seeds the job's measurements, so they can be repeated
+//     state <re1> <im1> <re2> <im2>  adds a state to the job's qubit
+//     load <file>                    adds the states of a saved qubit
+//     gate <a> <b> <c>               transforms the qubit with Gate(a, b, c)
+//     measure                        measures the qubit, collapsing it, and outputs the measured state
+//     measure <shots>                measures the qubit shots times without collapsing it, and outputs the counts
+//     probability <a> <b> <c> [+|-]  outputs the probability of the gate's positive (or negative) eigenvalue
+//     expectation <a> <b> <c>        outputs the expectation value of the gate
+//     end                            ends the job
+// the seed and states must come before the gates and measurements of a job.
+public class JobParser {
+
+    private final BufferedReader reader;
+    private final Random seeds;
+    private String pending;
+    private int lineNumber;
+    private int jobCount;
+
+    //EFFECTS: constructs a parser reading jobs from the given reader
+    public JobParser(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.seeds = new Random();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: reads the next job, with its operations recorded on its circuit, or returns null if there are no more
+    //         throws InvalidJobException if a line of the job can't be understood, or the job has no states
+    public Job next() throws IOException, InvalidJobException {
+        String line = nextLine();
+        if (line == null) {
+            return null;
+        }
+        jobCount++;
+        String name = "job" + jobCount;
+        if (isWord(line, "job")) {
+            String[] words = split(line);
+            name = words.length > 1 ? words[1] : name;
+            line = nextLine();
+        }
+        Qubit qubit = new Qubit();
+        long seed = seeds.nextLong();
+        while (line != null && !isOperation(line) && !isEnd(line)) {
+            String[] words = split(line);
+            switch (words[0]) {
+                case "seed":
+                    seed = integer(words, 1);
+                    break;
+                case "state":
+                    qubit.addState(number(words, 1, 5), number(words, 2, 5), number(words, 3, 5),
+                            number(words, 4, 5));
+                    break;
+                case "load":
+                    load(qubit, line.substring(words[0].length()).trim());
+                    break;
+                default:
+                    throw invalid("unknown instruction " + words[0]);
+            }
+            line = nextLine();
+        }
+        if (qubit.size() == 0) {
+            throw invalid("job " + name + " has no states");
+        }
+        qubit.setSeed(seed);
+        Job job = new Job(name, qubit);
+        int shotsSeen = 0;
+        while (line != null && !isEnd(line)) {
+            record(job, line, seed + shotsSeen);
+            if (isWord(line, "measure")) {
+                shotsSeen++;
+            }
+            line = nextLine();
+        }
+        if (line != null && isWord(line, "job")) {
+            pending = line;
+        }
+        return job;
+    }
+
+    //MODIFIES: job
+    //EFFECTS: records the operation on the given line in the job's circuit, and its output if it has one
+    private void record(Job job, String line, long seed) throws InvalidJobException {
+        String[] words = split(line);
+        Circuit circuit = job.getCircuit();
+        switch (words[0]) {
+            case "gate":
+                circuit.transform(gate(words, 4));
+                break;
+            case "measure":
+                if (words.length == 1) {
+                    Circuit.Result<Qubit> measured = circuit.measure();
+                    job.addOutput(line, () -> formatState(measured.get()));
+                } else {
+                    long shots = integer(words, 1);
+                    if (shots < 1 || shots > Integer.MAX_VALUE) {
+                        throw invalid("the number of shots must be between 1 and " + Integer.MAX_VALUE);
+                    }
+                    Circuit.Result<int[]> counts = circuit.measure((int) shots, seed);
+                    job.addOutput(line, () -> Arrays.stream(counts.get()).mapToObj(Integer::toString)
+                            .collect(Collectors.joining(" ")));
+                }
+                break;
+            case "probability":
+                Gate observable = gate(words, 5);
+                Circuit.Result<Double> probability = circuit.measureProbability(observable, isPositive(words));
+                job.addOutput(line, () -> Double.toString(probability.get()));
+                break;
+            case "expectation":
+                Circuit.Result<Double> expectation = circuit.measureExpectationValue(gate(words, 4));
+                job.addOutput(line, () -> Double.toString(expectation.get()));
+                break;
+            default:
+                throw invalid(words[0] + " must come before the gates and measurements of a job");
+        }
+    }
+
+    //EFFECTS: returns the next line that is not blank or a comment, trimmed, or null if there are no more
+    private String nextLine() throws IOException {
+        if (pending != null) {
+            String line = pending;
+            pending = null;
+            return line;
+        }
+        String line = reader.readLine();
+        while (line != null) {
+            lineNumber++;
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                return line;
+            }
+            line = reader.readLine();
+        }
+        return null;
+    }
+
+    //MODIFIES: qubit
+    //EFFECTS: adds the states of the qubit saved in the named file to the given qubit
+    private void load(Qubit qubit, String fileName) throws IOException, InvalidJobException {
+        if (fileName.isEmpty()) {
+            throw invalid("load needs a file name");
+        }
+        Qubit saved = QubitFile.load(new File(fileName));
+        for (int i = 0; i < saved.size(); i++) {
+            qubit.addState(saved.getPart(i, 0), saved.getPart(i, 1), saved.getPart(i, 2), saved.getPart(i, 3));
+        }
+    }
+
+    //EFFECTS: returns the gate made from the three numbers after the instruction
+    private Gate gate(String[] words, int maxWords) throws InvalidJobException {
+        return new Gate(number(words, 1, maxWords), number(words, 2, maxWords), number(words, 3, maxWords));
+    }
+
+    //EFFECTS: returns true if a probability line asks for the positive eigenvalue, i.e. its sign is + or missing
+    //         throws InvalidJobException if the sign is neither + nor -
+    private boolean isPositive(String[] words) throws InvalidJobException {
+        if (words.length < 5 || words[4].equals("+")) {
+            return true;
+        } else if (words[4].equals("-")) {
+            return false;
+        }
+        throw invalid(words[4] + " is not a sign; probability takes + or -");
+    }
+
+    //         throws InvalidJobException if it is missing or not a number, or the line has more than maxWords words
+    private double number(String[] words, int position, int maxWords) throws InvalidJobException {
+        if (position >= words.length || words.length > maxWords) {
+            throw invalid(words[0] + " takes " + (maxWords - 1) + " numbers");
+        }
+        try {
+            return Double.parseDouble(words[position]);
+        } catch (NumberFormatException e) {
+            throw invalid(words[position] + " is not a number");
+        }
+    }
+
+    //EFFECTS: returns the whole number at the given position of a line of two words
+    //         throws InvalidJobException if it is missing or not a whole number, or the line has more words
+    private long integer(String[] words, int position) throws InvalidJobException {
+        if (words.length != 2) {
+            throw invalid(words[0] + " takes 1 whole number");
+        }
+        try {
+            return Long.parseLong(words[position]);
+        } catch (NumberFormatException e) {
+            throw invalid(words[position] + " is not a whole number");
+        }
+    }
+
+    //EFFECTS: returns true if the line is a gate or a measurement
+    private static boolean isOperation(String line) {
+        return isWord(line, "gate") || isWord(line, "measure") || isWord(line, "probability")
+                || isWord(line, "expectation");
+    }
+
+    //EFFECTS: returns true if the line ends the current job
+    private static boolean isEnd(String line) {
+        return isWord(line, "end") || isWord(line, "job");
+    }
+
+    //EFFECTS: returns true if the first word of the line is the given word
+    private static boolean isWord(String line, String word) {
+        return split(line)[0].equals(word);
+    }
+
+    //EFFECTS: returns the words of the line
+    private static String[] split(String line) {
+        return line.split("\\s+");
+    }
+
+    //EFFECTS: returns an exception for the current line with the given message
+    private InvalidJobException invalid(String message) {
+        return new InvalidJobException("line " + lineNumber + ": " + message);
+    }
+
+    //EFFECTS: returns the single state of a measured qubit, normalized, as four numbers
+    private static String formatState(Qubit measured) {
+        double scale = measured.getScaleFactor();
+        return measured.getPart(0, 0) * scale + " " + measured.getPart(0, 1) * scale + " "
+                + measured.getPart(0, 2) * scale + " " + measured.getPart(0, 3) * scale;
+    }
+}
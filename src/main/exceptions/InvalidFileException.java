@@ -0,0 +1,6 @@
+package exceptions;
+
+import java.io.IOException;
+
+public class InvalidFileException extends IOException {
+}
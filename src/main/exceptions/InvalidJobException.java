@@ -0,0 +1,8 @@
+package exceptions;
+
+public class InvalidJobException extends Exception {
+
+    public InvalidJobException(String message) {
+        super(message);
+    }
+}
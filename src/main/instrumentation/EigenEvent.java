@@ -0,0 +1,17 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a flight recorder event for working out the eigenvalues and eigenstates of a gate
+@Name("qubitsimulator.Eigen")
+@Label("Eigen Computation")
+@Category("Qubit Simulator")
+@Description("Eigenvalues and eigenstates of a gate worked out for the first time")
+@StackTrace(false)
+public class EigenEvent extends Event {
+}
@@ -0,0 +1,36 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a flight recorder event for applying gates to a qubit or a register
+@Name("qubitsimulator.Gate")
+@Label("Gate Application")
+@Category("Qubit Simulator")
+@Description("Gates applied to the states of a qubit or the amplitudes of a register")
+@StackTrace(false)
+public class GateEvent extends Event {
+
+    @Label("Gates")
+    public int gates;
+
+    @Label("States")
+    @Description("The number of states or amplitudes the gates were applied to")
+    public long states;
+
+    //MODIFIES: this
+    //EFFECTS: counts the gates in the simulator's metrics, and records this event with the given numbers if it is
+    //         enabled. when recording is off this costs no more than the counting.
+    public void finish(int gates, long states) {
+        SimulatorMetrics.get().gatesApplied(gates);
+        if (shouldCommit()) {
+            this.gates = gates;
+            this.states = states;
+            commit();
+        }
+    }
+}
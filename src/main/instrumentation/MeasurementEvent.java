@@ -0,0 +1,35 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a flight recorder event for measuring a qubit or a register one or more times
+@Name("qubitsimulator.Measurement")
+@Label("Measurement")
+@Category("Qubit Simulator")
+@Description("Measurements of a qubit or a register")
+@StackTrace(false)
+public class MeasurementEvent extends Event {
+
+    @Label("States")
+    public long states;
+
+    @Label("Shots")
+    public long shots;
+
+    //MODIFIES: this
+    //EFFECTS: counts the shots in the simulator's metrics, and records this event with the given numbers if it is
+    //         enabled
+    public void finish(long states, long shots) {
+        SimulatorMetrics.get().shotsSampled(shots);
+        if (shouldCommit()) {
+            this.states = states;
+            this.shots = shots;
+            commit();
+        }
+    }
+}
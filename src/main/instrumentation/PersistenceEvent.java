@@ -0,0 +1,36 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a flight recorder event for saving a qubit to a file or loading it back
+@Name("qubitsimulator.Persistence")
+@Label("Save or Load")
+@Category("Qubit Simulator")
+@Description("A qubit saved to or loaded from a file")
+@StackTrace(false)
+public class PersistenceEvent extends Event {
+
+    @Label("Operation")
+    @Description("save or load")
+    public String operation;
+
+    @Label("Format")
+    @Description("binary or json")
+    public String format;
+
+    @Label("Path")
+    public String path;
+
+    @Label("States")
+    public long states;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
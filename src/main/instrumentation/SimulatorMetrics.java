@@ -0,0 +1,157 @@
+package instrumentation;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+// running totals of the work the simulator has done since it started, shared by every qubit and register. they are
+// published over JMX as qubitsimulator:type=SimulatorMetrics once publish is called, or from the start if the
+// qubitsimulator.jmx system property is true, e.g. -Dqubitsimulator.jmx=true, so that nothing else pays for JMX.
+// the counters are LongAdders, so counting from several threads at once costs about as much as adding to a field.
+public class SimulatorMetrics implements SimulatorMetricsMBean {
+
+    public static final String OBJECT_NAME = "qubitsimulator:type=SimulatorMetrics";
+    public static final String JMX_PROPERTY = "qubitsimulator.jmx";
+
+    private static final SimulatorMetrics INSTANCE = new SimulatorMetrics();
+    private static boolean published;
+
+    static {
+        if (Boolean.getBoolean(JMX_PROPERTY)) {
+            publish();
+        }
+    }
+
+    private final LongAdder gatesApplied = new LongAdder();
+    private final LongAdder shotsSampled = new LongAdder();
+    private final LongAdder statesStored = new LongAdder();
+    private final LongAdder eigenComputations = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder nanosSaving = new LongAdder();
+    private final LongAdder bytesLoaded = new LongAdder();
+    private final LongAdder nanosLoading = new LongAdder();
+
+    private SimulatorMetrics() {
+    }
+
+    //EFFECTS: returns the metrics of this simulator
+    public static SimulatorMetrics get() {
+        return INSTANCE;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: publishes the metrics over JMX if they are not published yet; returns true if they are published.
+    //         they are still counted if that is not possible.
+    public static synchronized boolean publish() {
+        if (!published) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+                published = true;
+            } catch (JMException | RuntimeException e) {
+                // counted without being published
+            }
+        }
+        return published;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: counts gates applied to states or amplitudes
+    public void gatesApplied(long count) {
+        gatesApplied.add(count);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: counts measurements made
+    public void shotsSampled(long count) {
+        shotsSampled.add(count);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: counts states added to a qubit with addState, or takes away states removed with removeState when count
+    //         is negative; copies made to work on, such as the one a transform in the app makes, are not counted
+    public void statesStored(long count) {
+        statesStored.add(count);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: counts a gate whose eigenvalues and eigenstates were worked out
+    public void eigenComputed() {
+        eigenComputations.increment();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: counts a save of the given number of bytes that took the given time
+    public void saved(long bytes, long nanos) {
+        bytesSaved.add(bytes);
+        nanosSaving.add(nanos);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: counts a load of the given number of bytes that took the given time
+    public void loaded(long bytes, long nanos) {
+        bytesLoaded.add(bytes);
+        nanosLoading.add(nanos);
+    }
+
+    @Override
+    public long getGatesApplied() {
+        return gatesApplied.sum();
+    }
+
+    @Override
+    public long getShotsSampled() {
+        return shotsSampled.sum();
+    }
+
+    @Override
+    public long getStatesStored() {
+        return statesStored.sum();
+    }
+
+    @Override
+    public long getEigenComputations() {
+        return eigenComputations.sum();
+    }
+
+    @Override
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    @Override
+    public long getBytesLoaded() {
+        return bytesLoaded.sum();
+    }
+
+    //EFFECTS: returns the bytes saved per second spent saving, over all saves so far
+    @Override
+    public double getSaveBytesPerSecond() {
+        return rate(bytesSaved.sum(), nanosSaving.sum());
+    }
+
+    //EFFECTS: returns the bytes loaded per second spent loading, over all loads so far
+    @Override
+    public double getLoadBytesPerSecond() {
+        return rate(bytesLoaded.sum(), nanosLoading.sum());
+    }
+
+    //MODIFIES: this
+    //EFFECTS: sets every counter back to zero
+    @Override
+    public void reset() {
+        gatesApplied.reset();
+        shotsSampled.reset();
+        statesStored.reset();
+        eigenComputations.reset();
+        bytesSaved.reset();
+        nanosSaving.reset();
+        bytesLoaded.reset();
+        nanosLoading.reset();
+    }
+
+    //EFFECTS: returns bytes per second
+    private static double rate(long bytes, long nanos) {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+}
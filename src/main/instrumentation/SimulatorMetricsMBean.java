@@ -0,0 +1,23 @@
+package instrumentation;
+
+// the counters of the simulator exposed over JMX
+public interface SimulatorMetricsMBean {
+
+    long getGatesApplied();
+
+    long getShotsSampled();
+
+    long getStatesStored();
+
+    long getEigenComputations();
+
+    long getBytesSaved();
+
+    long getBytesLoaded();
+
+    double getSaveBytesPerSecond();
+
+    double getLoadBytesPerSecond();
+
+    void reset();
+}
@@ -0,0 +1,66 @@
+package model;
+
+// picks random indices with probabilities proportional to a list of weights in constant time per pick, using
+// Vose's alias method. building the table takes time proportional to the number of weights.
+public class AliasSampler {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    //REQUIRES: weights is not empty, every weight is >= 0 and at least one is > 0
+    //EFFECTS: constructs the alias table for the given weights
+    public AliasSampler(double[] weights) {
+        int n = weights.length;
+        probability = new double[n];
+        alias = new int[n];
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // whatever is left over is 1 up to rounding
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }
+
+    //EFFECTS: returns the number of weights this picks from
+    public int size() {
+        return probability.length;
+    }
+
+    //REQUIRES: 0 <= uniform < 1
+    //EFFECTS: returns the index picked by the given uniformly distributed random number
+    public int sample(double uniform) {
+        double scaled = uniform * probability.length;
+        int column = (int) scaled;
+        return (scaled - column) < probability[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,160 @@
+package model;
+
+import java.util.Arrays;
+
+// a map from the indices of basis states to complex amplitudes, kept in primitive arrays with open addressing and
+// linear probing, so that no object is made per amplitude. removing an index shifts back the entries probed after
+// it instead of leaving a marker behind, so lookups do not slow down as amplitudes come and go.
+class AmplitudeMap {
+
+    static final long EMPTY = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+
+    //EFFECTS: constructs an empty map with room for about expected amplitudes before it grows
+    AmplitudeMap(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * expected) {
+            capacity *= 2;
+        }
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new double[2 * capacity];
+    }
+
+    //EFFECTS: returns the number of amplitudes in this map
+    int size() {
+        return size;
+    }
+
+    //EFFECTS: returns the number of slots in this map; slots are numbered from 0
+    int capacity() {
+        return keys.length;
+    }
+
+    //EFFECTS: returns the index kept in the given slot, or EMPTY if there is none
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    //EFFECTS: returns the real part of the amplitude kept in the given slot
+    double reAt(int slot) {
+        return values[2 * slot];
+    }
+
+    //EFFECTS: returns the imaginary part of the amplitude kept in the given slot
+    double imAt(int slot) {
+        return values[2 * slot + 1];
+    }
+
+    //REQUIRES: key >= 0
+    //EFFECTS: returns the slot holding key, or -1 if key is not in this map
+    int find(long key) {
+        int slot = slotFor(key);
+        return keys[slot] == key ? slot : -1;
+    }
+
+    //REQUIRES: key >= 0
+    //MODIFIES: this
+    //EFFECTS: sets the amplitude of key, adding key if it is not in this map yet
+    void put(long key, double re, double im) {
+        int slot = slotFor(key);
+        if (keys[slot] != key) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                slot = slotFor(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[2 * slot] = re;
+        values[2 * slot + 1] = im;
+    }
+
+    //REQUIRES: key >= 0
+    //MODIFIES: this
+    //EFFECTS: removes key from this map; returns true if it was in it
+    boolean remove(long key) {
+        int hole = slotFor(key);
+        if (keys[hole] != key) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (keys[slot] == EMPTY) {
+                break;
+            }
+            // an entry can fill the hole if the hole lies between the slot it hashes to and the slot it is in
+            int home = home(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[2 * hole] = values[2 * slot];
+                values[2 * hole + 1] = values[2 * slot + 1];
+                hole = slot;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[2 * hole] = 0;
+        values[2 * hole + 1] = 0;
+        size--;
+        return true;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: multiplies every amplitude by factor; empty slots hold zeros, so they can be gone over with the rest
+    void scale(double factor) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= factor;
+        }
+    }
+
+    //EFFECTS: returns the sum of the squared absolute values of the amplitudes
+    double normSquared() {
+        double sum = 0;
+        for (int i = 0; i < values.length; i += 2) {
+            sum += values[i] * values[i] + values[i + 1] * values[i + 1];
+        }
+        return sum;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: doubles the number of slots, putting every entry in its new slot
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[2 * oldKeys.length];
+        Arrays.fill(keys, EMPTY);
+        values = new double[2 * keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[2 * slot] = oldValues[2 * i];
+                values[2 * slot + 1] = oldValues[2 * i + 1];
+            }
+        }
+    }
+
+    //EFFECTS: returns the slot holding key, or the empty slot where it would go
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = home(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    //EFFECTS: returns the slot key hashes to; indices are mixed first, since basis states that differ in a few bits
+    //         would otherwise crowd into neighbouring slots
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+    }
+}
@@ -0,0 +1,358 @@
+package model;
+
+import instrumentation.GateEvent;
+import instrumentation.MeasurementEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// a register whose amplitudes are kept in byte buffers outside the Java heap, as (re, im) pairs of doubles in the
+// platform's byte order. each buffer is a chunk of at most 2^chunkBits amplitudes, so a register can hold more than
+// the 2^31 doubles an array can, and all indices are longs. the pairs a gate works on are split into blocks, and the
+// blocks are run over this register's parallel context like the pairs of a StateVector. a sequence of gates on the
+// lower qubits is applied one tile of amplitudes at a time, so the amplitudes are read and written once, in order,
+// for the whole sequence instead of once per gate. subclasses decide where the buffers come from and how they are
+// given back.
+public abstract class BufferStateVector implements Register {
+
+    public static final int MAX_QUBITS = 40;
+    public static final int DEFAULT_CHUNK_BITS = 26;
+
+    private static final int BLOCK_BITS = 12;
+    private static final int TILE_BITS = 16;
+
+    private final int numQubits;
+    private final int chunkBits;
+    private final long chunkMask;
+    private final int tileBits;
+    private ByteBuffer[] buffers;
+    private DoubleBuffer[] chunks;
+    private ParallelContext context = ParallelContext.SEQUENTIAL;
+
+    // a run of pairs whose first numbers are all in one chunk and whose second numbers are all in one chunk
+    private interface PairRun {
+        void run(DoubleBuffer lower, int lowerFrom, DoubleBuffer upper, int upperFrom, int count);
+    }
+
+    // a range of work over long indices whose results are added up
+    private interface LongRangeSum {
+        double sum(long from, long to);
+    }
+
+    //REQUIRES: buffers are filled with zeros and were made for numQubits and chunkBits as chunkCount and chunkBytes
+    //          say
+    //EFFECTS: constructs a register of numQubits qubits in the given buffers, all in the first basis state
+    protected BufferStateVector(int numQubits, int chunkBits, ByteBuffer[] buffers) {
+        this.numQubits = numQubits;
+        this.chunkBits = Math.min(chunkBits, numQubits);
+        this.chunkMask = (1L << this.chunkBits) - 1;
+        this.tileBits = Math.min(TILE_BITS, this.chunkBits);
+        this.buffers = buffers;
+        this.chunks = new DoubleBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            chunks[i] = buffers[i].order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        chunks[0].put(0, 1);
+    }
+
+    //EFFECTS: throws IllegalArgumentException if a register can't have numQubits qubits
+    protected static void checkNumQubits(int numQubits) {
+        if (numQubits < 1 || numQubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("A register must have between 1 and " + MAX_QUBITS + " qubits");
+        }
+    }
+
+    //EFFECTS: returns the number of chunks a register of numQubits qubits is split into
+    protected static int chunkCount(int numQubits, int chunkBits) {
+        return 1 << (numQubits - Math.min(chunkBits, numQubits));
+    }
+
+    //EFFECTS: returns the number of bytes in each chunk of a register of numQubits qubits
+    protected static int chunkBytes(int numQubits, int chunkBits) {
+        return 16 << Math.min(chunkBits, numQubits);
+    }
+
+    //MODIFIES: buffers
+    //EFFECTS: gives back the memory of the buffers, which are not used afterwards
+    protected abstract void release(ByteBuffer[] buffers);
+
+    @Override
+    public int getNumQubits() {
+        return numQubits;
+    }
+
+    @Override
+    public ParallelContext getParallelContext() {
+        return context;
+    }
+
+    @Override
+    public void setParallelContext(ParallelContext context) {
+        this.context = context;
+    }
+
+    //EFFECTS: returns true if this register has been closed
+    public boolean isClosed() {
+        return chunks == null;
+    }
+
+    @Override
+    public Complex getAmplitude(long index) {
+        DoubleBuffer chunk = chunk(index);
+        int i = position(index);
+        return new Complex(chunk.get(i), chunk.get(i + 1));
+    }
+
+    @Override
+    public void setAmplitude(long index, Complex amplitude) {
+        DoubleBuffer chunk = chunk(index);
+        int i = position(index);
+        chunk.put(i, amplitude.getX());
+        chunk.put(i + 1, amplitude.getY());
+    }
+
+    @Override
+    public void apply(Gate gate, int target) {
+        checkTarget(target);
+        applyMatrix(gate.toArray(gate.getScale()), target);
+    }
+
+    //REQUIRES: gates and targets have the same length, every target is a qubit of this register
+    //MODIFIES: this
+    //EFFECTS: applies each gate to its target qubit in order. runs of gates on the same target are fused into one
+    //         gate, and consecutive gates on qubits inside a tile are applied together, tile by tile.
+    @Override
+    public void apply(List<Gate> gates, int[] targets) {
+        List<double[]> matrices = new ArrayList<>();
+        List<Integer> fusedTargets = new ArrayList<>();
+        int start = 0;
+        while (start < gates.size()) {
+            checkTarget(targets[start]);
+            int end = start + 1;
+            while (end < gates.size() && targets[end] == targets[start]) {
+                end++;
+            }
+            Gate gate = Gate.fuse(gates.subList(start, end));
+            matrices.add(gate.toArray(gate.getScale()));
+            fusedTargets.add(targets[start]);
+            start = end;
+        }
+        int i = 0;
+        while (i < matrices.size()) {
+            int j = i;
+            while (j < matrices.size() && fusedTargets.get(j) < tileBits) {
+                j++;
+            }
+            if (j > i) {
+                applyTiled(matrices.subList(i, j), fusedTargets.subList(i, j));
+                i = j;
+            } else {
+                applyMatrix(matrices.get(i), fusedTargets.get(i));
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public double probability(long index) {
+        DoubleBuffer chunk = chunk(index);
+        int i = position(index);
+        return chunk.get(i) * chunk.get(i) + chunk.get(i + 1) * chunk.get(i + 1);
+    }
+
+    @Override
+    public double probabilityOfOne(int target) {
+        checkTarget(target);
+        long stride = 1L << target;
+        double sum = forEachBlock(getDimension() / 2, (from, to) -> {
+            double[] part = new double[1];
+            forEachRun(from, to, stride, (lower, lowerFrom, upper, upperFrom, count) ->
+                    part[0] += ComplexArrays.normSquared(upper, upperFrom, upperFrom + count));
+            return part[0];
+        });
+        return sum / normSquared();
+    }
+
+    @Override
+    public double normSquared() {
+        return forEachBlock(getDimension(), this::rangeNormSquared);
+    }
+
+    @Override
+    public void normalize() {
+        double factor = 1 / Math.sqrt(normSquared());
+        forEachBlock(getDimension(), (from, to) -> {
+            rangeScale(from, to, factor);
+            return 0;
+        });
+    }
+
+    @Override
+    public boolean measure(int target, Random random) {
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        boolean one = random.nextDouble() < probabilityOfOne(target);
+        long stride = 1L << target;
+        forEachBlock(getDimension() / 2, (from, to) -> {
+            forEachRun(from, to, stride, (lower, lowerFrom, upper, upperFrom, count) -> {
+                if (one) {
+                    ComplexArrays.scale(lower, lowerFrom, lowerFrom + count, 0);
+                } else {
+                    ComplexArrays.scale(upper, upperFrom, upperFrom + count, 0);
+                }
+            });
+            return 0;
+        });
+        normalize();
+        event.finish(getDimension(), 1);
+        return one;
+    }
+
+    @Override
+    public long sample(Random random) {
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        long index = pick(random.nextDouble() * normSquared());
+        event.finish(getDimension(), 1);
+        return index;
+    }
+
+    //EFFECTS: returns the first basis state at which the running sum of the probabilities passes remaining
+    private long pick(double remaining) {
+        long last = 0;
+        for (long i = 0; i < getDimension(); i++) {
+            double p = probability(i);
+            if (p > 0) {
+                last = i;
+                remaining -= p;
+                if (remaining < 0) {
+                    return i;
+                }
+            }
+        }
+        return last;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: gives back the memory of this register; it must not be used afterwards. closing twice does nothing.
+    @Override
+    public void close() {
+        if (chunks != null) {
+            chunks = null;
+            release(buffers);
+            buffers = null;
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: applies the matrix, as in Gate.toArray, to the target qubit
+    private void applyMatrix(double[] matrix, int target) {
+        GateEvent event = new GateEvent();
+        event.begin();
+        long stride = 1L << target;
+        forEachBlock(getDimension() / 2, (from, to) -> {
+            forEachRun(from, to, stride, (lower, lowerFrom, upper, upperFrom, count) ->
+                    ComplexArrays.applyPairs(lower, lowerFrom, upper, upperFrom, count, matrix));
+            return 0;
+        });
+        event.finish(1, getDimension());
+    }
+
+    //REQUIRES: every target < tileBits
+    //MODIFIES: this
+    //EFFECTS: applies each matrix to its target qubit in order, going over the amplitudes once: all the matrices are
+    //         applied to a tile before moving on to the next. tiles may be done at the same time.
+    private void applyTiled(List<double[]> matrices, List<Integer> targets) {
+        GateEvent event = new GateEvent();
+        event.begin();
+        int tiles = (int) (getDimension() >>> tileBits);
+        int grain = Math.max(1, context.getThreshold() >>> tileBits);
+        int tilePairs = 1 << (tileBits - 1);
+        context.forEach(0, tiles, grain, (from, to) -> {
+            for (int tile = from; tile < to; tile++) {
+                long first = (long) tile << tileBits;
+                DoubleBuffer chunk = chunk(first);
+                int pairFrom = (int) (first & chunkMask) / 2;
+                for (int k = 0; k < matrices.size(); k++) {
+                    ComplexArrays.applyPairs(chunk, pairFrom, pairFrom + tilePairs, 1 << targets.get(k),
+                            matrices.get(k));
+                }
+            }
+        });
+        event.finish(matrices.size(), getDimension());
+    }
+
+    //EFFECTS: runs the action over [0, count) split into blocks, which may run at the same time, and returns the sum
+    //         of what it returns
+    private double forEachBlock(long count, LongRangeSum action) {
+        int blocks = (int) ((count + (1L << BLOCK_BITS) - 1) >>> BLOCK_BITS);
+        int grain = Math.max(1, context.getThreshold() >>> BLOCK_BITS);
+        return context.sum(0, blocks, grain,
+                (from, to) -> action.sum((long) from << BLOCK_BITS, Math.min(count, (long) to << BLOCK_BITS)));
+    }
+
+    //EFFECTS: calls the action on the pairs [from, to) of numbers stride apart, in runs that don't cross a chunk.
+    //         pair p is made of number (p / stride) * 2 * stride + p % stride and the one stride after it.
+    private void forEachRun(long from, long to, long stride, PairRun action) {
+        long pair = from;
+        while (pair < to) {
+            long offset = pair & (stride - 1);
+            long lower = 2 * (pair - offset) + offset;
+            long run = Math.min(Math.min(stride - offset, to - pair), chunkMask + 1 - (lower & chunkMask));
+            long upper = lower + stride;
+            action.run(chunk(lower), (int) (lower & chunkMask), chunk(upper), (int) (upper & chunkMask), (int) run);
+            pair += run;
+        }
+    }
+
+    //EFFECTS: returns the sum of the squared absolute values of the amplitudes in [from, to)
+    private double rangeNormSquared(long from, long to) {
+        double sum = 0;
+        long i = from;
+        while (i < to) {
+            long run = Math.min(to - i, chunkMask + 1 - (i & chunkMask));
+            int start = (int) (i & chunkMask);
+            sum += ComplexArrays.normSquared(chunk(i), start, start + (int) run);
+            i += run;
+        }
+        return sum;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: multiplies the amplitudes in [from, to) by factor
+    private void rangeScale(long from, long to, double factor) {
+        long i = from;
+        while (i < to) {
+            long run = Math.min(to - i, chunkMask + 1 - (i & chunkMask));
+            int start = (int) (i & chunkMask);
+            ComplexArrays.scale(chunk(i), start, start + (int) run, factor);
+            i += run;
+        }
+    }
+
+    //EFFECTS: returns the chunk holding the amplitude at the given index
+    //         throws IllegalStateException if this register has been closed
+    private DoubleBuffer chunk(long index) {
+        DoubleBuffer[] current = chunks;
+        if (current == null) {
+            throw new IllegalStateException("The register has been closed");
+        }
+        return current[(int) (index >>> chunkBits)];
+    }
+
+    //EFFECTS: returns the position of the real part of the amplitude at the given index in its chunk
+    private int position(long index) {
+        return (int) (index & chunkMask) * 2;
+    }
+
+    //EFFECTS: throws IllegalArgumentException if target is not a qubit of this register
+    private void checkTarget(int target) {
+        if (target < 0 || target >= numQubits) {
+            throw new IllegalArgumentException("No qubit " + target + " in a register of " + numQubits);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// represents a program run on a qubit. transforms and measurements are only recorded, and are carried out on the
+// qubit when one of their results is asked for, so that the recorded gates can be simplified first.
+public class Circuit {
+
+    static final double IDENTITY_TOLERANCE = 1e-12;
+
+    private Qubit qubit;
+    private final List<Operation> operations;
+
+    // a recorded operation, carried out on the qubit of the circuit
+    private interface Operation {
+        void run();
+    }
+
+    // the result of a recorded measurement, worked out the first time it is asked for
+    public class Result<T> {
+        private T value;
+        private boolean done;
+
+        //EFFECTS: returns the result, running the circuit up to and including its measurement if needed
+        public T get() {
+            if (!done) {
+                run();
+            }
+            return value;
+        }
+
+        //MODIFIES: this
+        //EFFECTS: stores the worked out result
+        private void set(T value) {
+            this.value = value;
+            this.done = true;
+        }
+    }
+
+    //EFFECTS: constructs a circuit with no operations, acting on the given qubit
+    public Circuit(Qubit qubit) {
+        this.qubit = qubit;
+        this.operations = new ArrayList<>();
+    }
+
+    //EFFECTS: returns the number of operations that have been recorded but not yet carried out
+    public int getPendingCount() {
+        return operations.size();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: returns the qubit after all recorded operations have been carried out
+    public Qubit getQubit() {
+        run();
+        return qubit;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: records a transform of the qubit with the given gate
+    public void transform(Gate gate) {
+        operations.add(new Transform(gate));
+    }
+
+    //MODIFIES: this
+    //EFFECTS: records a measurement of the qubit, which collapses it into the measured state
+    public Result<Qubit> measure() {
+        Result<Qubit> result = new Result<>();
+        operations.add(() -> {
+            qubit = qubit.measure();
+            result.set(qubit);
+        });
+        return result;
+    }
+
+    //REQUIRES: the qubit has at least one state
+    //MODIFIES: this
+    //EFFECTS: records shots measurements of the qubit made with random streams from the seed, which don't collapse
+    //         it; the result counts how many times each state was measured
+    public Result<int[]> measure(int shots, long seed) {
+        Result<int[]> result = new Result<>();
+        operations.add(() -> result.set(qubit.measure(shots, seed)));
+        return result;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: records a measurement of the probability of the positive eigenvalue of the given gate if posOrNeg is
+    //         true, negative otherwise
+    public Result<Double> measureProbability(Gate gate, boolean posOrNeg) {
+        Result<Double> result = new Result<>();
+        operations.add(() -> result.set(qubit.measureProbability(gate, posOrNeg)));
+        return result;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: records a measurement of the expectation value of the given gate
+    public Result<Double> measureExpectationValue(Gate gate) {
+        Result<Double> result = new Result<>();
+        operations.add(() -> result.set(qubit.measureExpectationValue(gate)));
+        return result;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: carries out all recorded operations on the qubit. each run of transforms is simplified first, and
+    //         applied to the qubit as at most one gate.
+    public void run() {
+        int i = 0;
+        while (i < operations.size()) {
+            List<Gate> gates = new ArrayList<>();
+            while (i < operations.size() && operations.get(i) instanceof Transform) {
+                gates.add(((Transform) operations.get(i)).gate);
+                i++;
+            }
+            List<Gate> simplified = simplify(gates);
+            if (!simplified.isEmpty()) {
+                qubit.transform(simplified);
+            }
+            if (i < operations.size()) {
+                operations.get(i).run();
+                i++;
+            }
+        }
+        operations.clear();
+    }
+
+    //EFFECTS: returns the given gates with every gate that is followed by its inverse removed along with it, so that
+    //         what is left transforms a state the same way, up to its scaling. a pair only counts as inverses if its
+    //         product is the identity up to rounding, IDENTITY_TOLERANCE times the norms of the two gates, so gates
+    //         that are merely close to inverses are kept.
+    static List<Gate> simplify(List<Gate> gates) {
+        List<Gate> kept = new ArrayList<>();
+        for (Gate gate : gates) {
+            Gate last = kept.isEmpty() ? null : kept.get(kept.size() - 1);
+            if (last != null && last.compose(gate).isIdentity(IDENTITY_TOLERANCE * last.norm() * gate.norm())) {
+                kept.remove(kept.size() - 1);
+            } else {
+                kept.add(gate);
+            }
+        }
+        return kept;
+    }
+
+    // a recorded transform of the qubit
+    private class Transform implements Operation {
+        private final Gate gate;
+
+        Transform(Gate gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void run() {
+            qubit.transform(gate);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+// a running sum of doubles that keeps track of the rounding error of each addition (Neumaier's variant of Kahan
+// summation), so that adding and taking away many values does not make the sum drift
+public class CompensatedSum {
+
+    private double sum;
+    private double compensation;
+
+    //EFFECTS: constructs a sum of zero
+    public CompensatedSum() {
+        sum = 0;
+        compensation = 0;
+    }
+
+    //EFFECTS: returns the value of the sum
+    public double getValue() {
+        return sum + compensation;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: adds value to the sum; subtracting is adding a negative value
+    public void add(double value) {
+        double next = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - next) + value;
+        } else {
+            compensation += (value - next) + sum;
+        }
+        sum = next;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: sets the sum to value, forgetting any rounding error
+    public void reset(double value) {
+        sum = value;
+        compensation = 0;
+    }
+}
@@ -0,0 +1,176 @@
+package model;
+
+import java.nio.DoubleBuffer;
+
+// bulk operations on arrays of complex numbers stored as (re, im) pairs of doubles, so that the i-th complex number
+// is at data[2 * i] and data[2 * i + 1]. ranges are given in complex numbers, not doubles. the same operations are
+// also given for buffers of doubles, laid out the same way, for amplitudes kept outside the Java heap.
+// the loops work on primitive doubles only and allocate nothing, so the JIT can unroll and vectorize them.
+public final class ComplexArrays {
+
+    private ComplexArrays() {
+    }
+
+    //REQUIRES: 0 <= from <= to <= data.length / 2
+    //EFFECTS: returns the sum of the squared absolute values of the complex numbers in [from, to)
+    public static double normSquared(double[] data, int from, int to) {
+        double sum0 = 0;
+        double sum1 = 0;
+        int i = 2 * from;
+        int end = 2 * to;
+        for (; i + 3 < end; i += 4) {
+            sum0 += data[i] * data[i] + data[i + 1] * data[i + 1];
+            sum1 += data[i + 2] * data[i + 2] + data[i + 3] * data[i + 3];
+        }
+        if (i < end) {
+            sum0 += data[i] * data[i] + data[i + 1] * data[i + 1];
+        }
+        return sum0 + sum1;
+    }
+
+    //REQUIRES: 0 <= from <= to <= data.capacity() / 2
+    //EFFECTS: returns the sum of the squared absolute values of the complex numbers in [from, to) of the buffer
+    public static double normSquared(DoubleBuffer data, int from, int to) {
+        double sum0 = 0;
+        double sum1 = 0;
+        int i = 2 * from;
+        int end = 2 * to;
+        for (; i + 3 < end; i += 4) {
+            double re0 = data.get(i);
+            double im0 = data.get(i + 1);
+            double re1 = data.get(i + 2);
+            double im1 = data.get(i + 3);
+            sum0 += re0 * re0 + im0 * im0;
+            sum1 += re1 * re1 + im1 * im1;
+        }
+        if (i < end) {
+            double re0 = data.get(i);
+            double im0 = data.get(i + 1);
+            sum0 += re0 * re0 + im0 * im0;
+        }
+        return sum0 + sum1;
+    }
+
+    //REQUIRES: 0 <= from <= to <= data.length / 2
+    //MODIFIES: data
+    //EFFECTS: multiplies the complex numbers in [from, to) by factor
+    public static void scale(double[] data, int from, int to, double factor) {
+        for (int i = 2 * from; i < 2 * to; i++) {
+            data[i] *= factor;
+        }
+    }
+
+    //REQUIRES: 0 <= from <= to <= data.capacity() / 2
+    //MODIFIES: data
+    //EFFECTS: multiplies the complex numbers in [from, to) of the buffer by factor
+    public static void scale(DoubleBuffer data, int from, int to, double factor) {
+        for (int i = 2 * from; i < 2 * to; i++) {
+            data.put(i, data.get(i) * factor);
+        }
+    }
+
+    //REQUIRES: stride is a power of two, 0 <= from <= to <= number of pairs, matrix is as in Gate.toArray
+    //MODIFIES: data
+    //EFFECTS: applies the matrix to pairs [from, to) of complex numbers stride apart, in the same way Gate.multiply
+    //         does to a state. pair p is made of number (p / stride) * 2 * stride + p % stride and the one stride
+    //         after it.
+    public static void applyPairs(double[] data, int from, int to, int stride, double[] matrix) {
+        double tlRe = matrix[0];
+        double tlIm = matrix[1];
+        double trRe = matrix[2];
+        double trIm = matrix[3];
+        double blRe = matrix[4];
+        double blIm = matrix[5];
+        double brRe = matrix[6];
+        double brIm = matrix[7];
+        int pair = from;
+        while (pair < to) {
+            int offset = pair & (stride - 1);
+            int run = Math.min(stride - offset, to - pair);
+            int start = 2 * (2 * (pair - offset) + offset);
+            for (int k = start; k < start + 2 * run; k += 2) {
+                int m = k + 2 * stride;
+                double re1 = data[k];
+                double im1 = data[k + 1];
+                double re2 = data[m];
+                double im2 = data[m + 1];
+                data[k] = re1 * tlRe - im1 * tlIm + re2 * blRe - im2 * blIm;
+                data[k + 1] = re1 * tlIm + im1 * tlRe + re2 * blIm + im2 * blRe;
+                data[m] = re1 * trRe - im1 * trIm + re2 * brRe - im2 * brIm;
+                data[m + 1] = re1 * trIm + im1 * trRe + re2 * brIm + im2 * brRe;
+            }
+            pair += run;
+        }
+    }
+
+    //REQUIRES: stride is a power of two, 0 <= from <= to <= number of pairs in the buffer, matrix is as in
+    //          Gate.toArray
+    //MODIFIES: data
+    //EFFECTS: applies the matrix to pairs [from, to) of complex numbers stride apart in the buffer, as applyPairs does
+    //         for an array
+    public static void applyPairs(DoubleBuffer data, int from, int to, int stride, double[] matrix) {
+        int pair = from;
+        while (pair < to) {
+            int offset = pair & (stride - 1);
+            int run = Math.min(stride - offset, to - pair);
+            int start = 2 * (pair - offset) + offset;
+            applyPairs(data, start, data, start + stride, run, matrix);
+            pair += run;
+        }
+    }
+
+    //REQUIRES: the count numbers from lowerFrom in lower and from upperFrom in upper are in the buffers,
+    //          matrix is as in Gate.toArray
+    //MODIFIES: lower, upper
+    //EFFECTS: applies the matrix to count pairs of complex numbers in the same way Gate.multiply does to a state. the
+    //         k-th pair is made of number lowerFrom + k of lower and number upperFrom + k of upper, which may be the
+    //         same buffer.
+    public static void applyPairs(DoubleBuffer lower, int lowerFrom, DoubleBuffer upper, int upperFrom, int count,
+                                  double[] matrix) {
+        double tlRe = matrix[0];
+        double tlIm = matrix[1];
+        double trRe = matrix[2];
+        double trIm = matrix[3];
+        double blRe = matrix[4];
+        double blIm = matrix[5];
+        double brRe = matrix[6];
+        double brIm = matrix[7];
+        for (int j = 0; j < 2 * count; j += 2) {
+            int k = 2 * lowerFrom + j;
+            int m = 2 * upperFrom + j;
+            double re1 = lower.get(k);
+            double im1 = lower.get(k + 1);
+            double re2 = upper.get(m);
+            double im2 = upper.get(m + 1);
+            lower.put(k, re1 * tlRe - im1 * tlIm + re2 * blRe - im2 * blIm);
+            lower.put(k + 1, re1 * tlIm + im1 * tlRe + re2 * blIm + im2 * blRe);
+            upper.put(m, re1 * trRe - im1 * trIm + re2 * brRe - im2 * brIm);
+            upper.put(m + 1, re1 * trIm + im1 * trRe + re2 * brIm + im2 * brRe);
+        }
+    }
+
+    //REQUIRES: 0 <= from <= to <= data.length / 4, sums has length 4
+    //MODIFIES: sums
+    //EFFECTS: adds to sums the entries of the sum over adjacent pairs [from, to) of the pair (a, b) times its
+    //         conjugate transpose: |a|^2, |b|^2 and the real and imaginary parts of a times the conjugate of b
+    public static void pairDensity(double[] data, int from, int to, double[] sums) {
+        double top = 0;
+        double bottom = 0;
+        double offRe = 0;
+        double offIm = 0;
+        for (int i = 4 * from; i < 4 * to; i += 4) {
+            double re1 = data[i];
+            double im1 = data[i + 1];
+            double re2 = data[i + 2];
+            double im2 = data[i + 3];
+            top += re1 * re1 + im1 * im1;
+            bottom += re2 * re2 + im2 * im2;
+            offRe += re1 * re2 + im1 * im2;
+            offIm += im1 * re2 - re1 * im2;
+        }
+        sums[0] += top;
+        sums[1] += bottom;
+        sums[2] += offRe;
+        sums[3] += offIm;
+    }
+}
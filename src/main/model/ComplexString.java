@@ -6,6 +6,9 @@ import static model.Complex.THRESHOLD;
 
 public class ComplexString {
 
+    // DecimalFormat is slow to build and not thread safe, so each thread keeps one to reuse
+    private static final ThreadLocal<DecimalFormat> FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("0.00"));
+
     private Complex num;
     private double real;
     private double im;
@@ -47,14 +50,19 @@ public class ComplexString {
     //EFFECTS: turns the complex number into a string
     @Override
     public String toString() {
-        DecimalFormat df = new DecimalFormat("0.00");
-        if (Math.abs(num.getY()) < THRESHOLD) {
-            return df.format(num.getX());
+        return format(num.getX(), num.getY());
+    }
+
+    //EFFECTS: turns the complex number with the given real and imaginary parts into a string, as toString does
+    public static String format(double re, double im) {
+        DecimalFormat df = FORMAT.get();
+        if (Math.abs(im) < THRESHOLD) {
+            return df.format(re);
         }
-        if (Math.abs(num.getX()) < THRESHOLD) {
-            return df.format(num.getY()) + "i";
+        if (Math.abs(re) < THRESHOLD) {
+            return df.format(im) + "i";
         } else {
-            return df.format(num.getX()) + " + " + df.format(num.getY()) + "i";
+            return df.format(re) + " + " + df.format(im) + "i";
         }
     }
 }
@@ -0,0 +1,48 @@
+package model;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+// frees the native memory behind direct and mapped buffers straight away instead of waiting for them to be garbage
+// collected. this goes through the cleaner of sun.misc.Unsafe, which every JDK since 9 opens to all code; if it is
+// missing the buffers are simply left for the garbage collector.
+final class DirectMemory {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectMemory() {
+    }
+
+    //REQUIRES: buffer was returned by ByteBuffer.allocateDirect or FileChannel.map, not a view of one, and is not
+    //          used afterwards
+    //EFFECTS: frees the memory behind the buffer, or leaves it for the garbage collector if that is not possible
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left for the garbage collector
+        }
+    }
+}
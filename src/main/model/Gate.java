@@ -1,5 +1,10 @@
 package model;
 
+import instrumentation.EigenEvent;
+import instrumentation.SimulatorMetrics;
+
+import java.util.List;
+
 // represents a quantum gate, or a 2x2 Hermitian matrix, with 4 numbers and a normalizing scale
 public class Gate {
 
@@ -10,6 +15,7 @@ public class Gate {
     private Complex botRight;
     private Complex botLeft;
     private double scale;
+    private Spectrum spectrum;
 
     //EFFECTS: constructs an 2 x 2 sized Hermitian unitary matrix with complex numbers
     public Gate(double a, double b, double c) {
@@ -31,6 +37,25 @@ public class Gate {
                 + topRight.absoluteValue() * topRight.absoluteValue());
     }
 
+    //EFFECTS: constructs a 2 x 2 matrix with complex numbers and the given normalizing scale
+    private Gate(Complex topLeft, Complex topRight, Complex botLeft, Complex botRight, double scale) {
+        this.topLeft = topLeft;
+        this.topRight = topRight;
+        this.botLeft = botLeft;
+        this.botRight = botRight;
+        this.scale = scale;
+    }
+
+    //REQUIRES: gates is not empty
+    //EFFECTS: returns a single gate that transforms a state the same way as applying each of gates in order
+    public static Gate fuse(List<Gate> gates) {
+        Gate result = gates.get(0);
+        for (int i = 1; i < gates.size(); i++) {
+            result = result.compose(gates.get(i));
+        }
+        return result;
+    }
+
     //getters
     public double getScale() {
         return scale;
@@ -52,17 +77,63 @@ public class Gate {
         return botLeft;
     }
 
-    //MODIFIES: state
+    //EFFECTS: returns the entries of this gate multiplied by factor, as (re, im) pairs in the order
+    //         top left, top right, bottom left, bottom right
+    double[] toArray(double factor) {
+        return new double[] {
+                topLeft.getX() * factor, topLeft.getY() * factor, topRight.getX() * factor, topRight.getY() * factor,
+                botLeft.getX() * factor, botLeft.getY() * factor, botRight.getX() * factor, botRight.getY() * factor};
+    }
+
     //EFFECTS: performs matrix multiplication on the given state
-    @SuppressWarnings("SuspiciousNameCombination")
     public State multiply(State state) {
-        State temp1 = new State(topLeft, botLeft);
-        State temp2 = new State(topRight, botRight);
-        Complex comp1 = state.innerProduct(temp1);
-        Complex comp2 = state.innerProduct(temp2);
+        double re1 = state.getFirstNumber().getX();
+        double im1 = state.getFirstNumber().getY();
+        double re2 = state.getSecondNumber().getX();
+        double im2 = state.getSecondNumber().getY();
+        Complex comp1 = new Complex(re1 * topLeft.getX() - im1 * topLeft.getY() + re2 * botLeft.getX()
+                - im2 * botLeft.getY(), re1 * topLeft.getY() + im1 * topLeft.getX() + re2 * botLeft.getY()
+                + im2 * botLeft.getX());
+        Complex comp2 = new Complex(re1 * topRight.getX() - im1 * topRight.getY() + re2 * botRight.getX()
+                - im2 * botRight.getY(), re1 * topRight.getY() + im1 * topRight.getX() + re2 * botRight.getY()
+                + im2 * botRight.getX());
         return new State(comp1, comp2);
     }
 
+    //EFFECTS: returns the gate that transforms a state the same way as applying this gate and then next.
+    //         since multiply uses the columns of a gate, this is the matrix product of this and next, with the
+    //         product of their scales.
+    public Gate compose(Gate next) {
+        return new Gate(topLeft.times(next.topLeft).plus(topRight.times(next.botLeft)),
+                topLeft.times(next.topRight).plus(topRight.times(next.botRight)),
+                botLeft.times(next.topLeft).plus(botRight.times(next.botLeft)),
+                botLeft.times(next.topRight).plus(botRight.times(next.botRight)),
+                scale * next.scale);
+    }
+
+    //EFFECTS: returns true if this gate, multiplied by its scale, is the identity matrix within THRESHOLD
+    public boolean isIdentity() {
+        return isIdentity(THRESHOLD);
+    }
+
+    //EFFECTS: returns true if this gate, multiplied by its scale, is the identity matrix within tolerance
+    public boolean isIdentity(double tolerance) {
+        return topRight.multiplyByConstant(scale).absoluteValue() < tolerance
+                && botLeft.multiplyByConstant(scale).absoluteValue() < tolerance
+                && topLeft.multiplyByConstant(scale).minus(new Complex(1, 0)).absoluteValue() < tolerance
+                && botRight.multiplyByConstant(scale).minus(new Complex(1, 0)).absoluteValue() < tolerance;
+    }
+
+    //EFFECTS: returns the Frobenius norm of this gate multiplied by its scale, the square root of the sum of the
+    //         squared absolute values of its entries
+    public double norm() {
+        double sum = topLeft.absoluteValue() * topLeft.absoluteValue()
+                + topRight.absoluteValue() * topRight.absoluteValue()
+                + botLeft.absoluteValue() * botLeft.absoluteValue()
+                + botRight.absoluteValue() * botRight.absoluteValue();
+        return Math.sqrt(sum) * Math.abs(scale);
+    }
+
     //EFFECTS: returns this gate minus the other gate
     public Gate minus(Gate other) {
         return new Gate(this.topLeft.minus(other.topLeft), this.topRight.minus(other.topRight),
@@ -78,32 +149,18 @@ public class Gate {
     //EFFECTS: returns the eigenstate associated with this gate. if posOrNeg is true, returns positive eigenstate.
     //         otherwise, returns negative eigenstate
     public State getEigenState(boolean posOrNeg) {
-        double eigen = this.getEigenValue(posOrNeg);
-        Complex lambda = new Complex(eigen, 0);
-        Complex a = this.getTopLeft().multiplyByConstant(scale);
-        Complex b = this.getTopRight().multiplyByConstant(scale);
-        Complex c = this.getBotLeft().multiplyByConstant(scale);
-        Complex d = this.getBotRight().multiplyByConstant(scale);
-        if (!(((a.minus(lambda)).absoluteValue() < THRESHOLD))) {
-            State result = new State(b, lambda.minus(a));
-            return result.multiplyByConstant(result.normalize());
-        } else {
-            State result = new State(lambda.minus(d), c);
-            return result.multiplyByConstant(result.normalize());
-        }
+        return getSpectrum().states[posOrNeg ? 0 : 1];
     }
 
     //EFFECTS: returns the eigenvalue associated with this gate. if posOrNeg is true, returns positive eigenvalue.
     //         otherwise, returns negative eigenvalue.
     public double getEigenValue(boolean posOrNeg) {
-        double tr = this.getTrace().getX();
-        double det = this.getDeterminant().getX();
-        double gap = (Math.sqrt(tr * tr - 4 * det)) / 2;
-        if (posOrNeg) {
-            return (tr + gap);
-        } else {
-            return (tr - gap);
-        }
+        return getSpectrum().values[posOrNeg ? 0 : 1];
+    }
+
+    //EFFECTS: returns the conjugates of the positive and then the negative eigenstate, as (re, im) pairs
+    double[] getEigenConjugates() {
+        return getSpectrum().conjugates;
     }
 
     //EFFECTS: returns the trace of the gate
@@ -115,4 +172,57 @@ public class Gate {
     public Complex getDeterminant() {
         return topLeft.times(botRight).minus(topRight.times(botLeft)).multiplyByConstant(scale * scale);
     }
+
+    //MODIFIES: this
+    //EFFECTS: returns the eigenvalues and eigenstates of this gate, working them out the first time they are needed.
+    //         a gate never changes, so they are only worked out once.
+    private Spectrum getSpectrum() {
+        if (spectrum == null) {
+            EigenEvent event = new EigenEvent();
+            event.begin();
+            spectrum = new Spectrum(this);
+            SimulatorMetrics.get().eigenComputed();
+            event.commit();
+        }
+        return spectrum;
+    }
+
+    // the eigenvalues and normalized eigenstates of a gate, positive first
+    private static final class Spectrum {
+        private final double[] values;
+        private final State[] states;
+        private final double[] conjugates;
+
+        //EFFECTS: works out the eigenvalues and eigenstates of the given gate
+        private Spectrum(Gate gate) {
+            double tr = gate.getTrace().getX();
+            double det = gate.getDeterminant().getX();
+            double gap = (Math.sqrt(tr * tr - 4 * det)) / 2;
+            values = new double[] {tr + gap, tr - gap};
+            states = new State[] {eigenState(gate, values[0]), eigenState(gate, values[1])};
+            conjugates = new double[8];
+            for (int i = 0; i < 2; i++) {
+                conjugates[4 * i] = states[i].getFirstNumber().getX();
+                conjugates[4 * i + 1] = -states[i].getFirstNumber().getY();
+                conjugates[4 * i + 2] = states[i].getSecondNumber().getX();
+                conjugates[4 * i + 3] = -states[i].getSecondNumber().getY();
+            }
+        }
+
+        //EFFECTS: returns the normalized eigenstate of the gate for the given eigenvalue
+        private static State eigenState(Gate gate, double eigen) {
+            Complex lambda = new Complex(eigen, 0);
+            Complex a = gate.getTopLeft().multiplyByConstant(gate.scale);
+            Complex b = gate.getTopRight().multiplyByConstant(gate.scale);
+            Complex c = gate.getBotLeft().multiplyByConstant(gate.scale);
+            Complex d = gate.getBotRight().multiplyByConstant(gate.scale);
+            if (!(((a.minus(lambda)).absoluteValue() < THRESHOLD))) {
+                State result = new State(b, lambda.minus(a));
+                return result.multiplyByConstant(result.normalize());
+            } else {
+                State result = new State(lambda.minus(d), c);
+                return result.multiplyByConstant(result.normalize());
+            }
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+// a register whose amplitudes live in a memory-mapped scratch file, so a register can be larger than the memory of
+// the machine and the operating system pages amplitudes in and out as they are used. gates are applied in order of
+// the amplitudes, so most page faults are sequential reads. the scratch file is deleted when the register is closed.
+public class MappedStateVector extends BufferStateVector {
+
+    public static final String SCRATCH_DIRECTORY_PROPERTY = "qubit.scratch.dir";
+    public static final String DEFAULT_SCRATCH_DIRECTORY = "./data";
+
+    private final File file;
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS
+    //EFFECTS: constructs a register of numQubits qubits, all in the first basis state, in a new file in the
+    //         configured scratch directory
+    public MappedStateVector(int numQubits) throws IOException {
+        this(numQubits, getScratchDirectory());
+    }
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS
+    //EFFECTS: constructs a register of numQubits qubits, all in the first basis state, in a new file in directory
+    public MappedStateVector(int numQubits, File directory) throws IOException {
+        this(numQubits, DEFAULT_CHUNK_BITS, directory);
+    }
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS, 1 <= chunkBits <= DEFAULT_CHUNK_BITS
+    //EFFECTS: constructs a register of numQubits qubits split into chunks of 2^chunkBits amplitudes, in a new file in
+    //         directory
+    MappedStateVector(int numQubits, int chunkBits, File directory) throws IOException {
+        this(createFile(numQubits, directory), numQubits, chunkBits);
+    }
+
+    //EFFECTS: constructs a register of numQubits qubits mapped from the given new file
+    private MappedStateVector(File file, int numQubits, int chunkBits) throws IOException {
+        super(numQubits, chunkBits, map(file, numQubits, chunkBits));
+        this.file = file;
+    }
+
+    //EFFECTS: returns the directory scratch files go in: the one named by the qubit.scratch.dir system property,
+    //         or ./data if it is not set
+    public static File getScratchDirectory() {
+        return new File(System.getProperty(SCRATCH_DIRECTORY_PROPERTY, DEFAULT_SCRATCH_DIRECTORY));
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    protected void release(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            DirectMemory.free(buffer);
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    //EFFECTS: creates an empty scratch file in directory for a register of numQubits qubits
+    private static File createFile(int numQubits, File directory) throws IOException {
+        checkNumQubits(numQubits);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create the scratch directory " + directory);
+        }
+        File file = File.createTempFile("register-" + numQubits + "-", ".amp", directory);
+        file.deleteOnExit();
+        return file;
+    }
+
+    //EFFECTS: grows the file to hold a register of numQubits qubits, all zeros, and maps each chunk of it;
+    //         deletes the file if it can't
+    private static ByteBuffer[] map(File file, int numQubits, int chunkBits) throws IOException {
+        int chunkBytes = chunkBytes(numQubits, chunkBits);
+        ByteBuffer[] buffers = new ByteBuffer[chunkCount(numQubits, chunkBits)];
+        try (RandomAccessFile access = new RandomAccessFile(file, "rw");
+             FileChannel channel = access.getChannel()) {
+            access.setLength((long) chunkBytes * buffers.length);
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * chunkBytes, chunkBytes);
+            }
+            return buffers;
+        } catch (IOException | RuntimeException e) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+import java.nio.ByteBuffer;
+
+// a register whose amplitudes are kept in direct buffers outside the Java heap, so they are never scanned or moved
+// by the garbage collector. the memory is given back as soon as the register is closed.
+public class OffHeapStateVector extends BufferStateVector {
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS
+    //EFFECTS: constructs a register of numQubits qubits, all in the first basis state
+    public OffHeapStateVector(int numQubits) {
+        this(numQubits, DEFAULT_CHUNK_BITS);
+    }
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS, 1 <= chunkBits <= DEFAULT_CHUNK_BITS
+    //EFFECTS: constructs a register of numQubits qubits split into chunks of 2^chunkBits amplitudes
+    OffHeapStateVector(int numQubits, int chunkBits) {
+        super(numQubits, chunkBits, allocate(numQubits, chunkBits));
+    }
+
+    @Override
+    protected void release(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            DirectMemory.free(buffer);
+        }
+    }
+
+    //EFFECTS: allocates the zeroed direct buffers for a register of numQubits qubits
+    private static ByteBuffer[] allocate(int numQubits, int chunkBits) {
+        checkNumQubits(numQubits);
+        ByteBuffer[] buffers = new ByteBuffer[chunkCount(numQubits, chunkBits)];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(chunkBytes(numQubits, chunkBits));
+        }
+        return buffers;
+    }
+}
@@ -0,0 +1,193 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+// decides how bulk work over a range of indices is run: ranges smaller than the threshold run on the calling thread,
+// larger ones are split in halves across this context's own fork/join pool. each simulation can be given its own
+// context so that several simulations can share a machine without using more threads than intended.
+public class ParallelContext implements AutoCloseable {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+    public static final ParallelContext SEQUENTIAL = new ParallelContext();
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    // a range of work that can be run on its own
+    public interface RangeAction {
+        void run(int from, int to);
+    }
+
+    // a range of work whose results are added up
+    public interface RangeSum {
+        double sum(int from, int to);
+    }
+
+    // a range of work with several results, each added up separately
+    public interface RangeSums {
+        void sum(int from, int to, double[] sums);
+    }
+
+    //EFFECTS: constructs a context that runs everything on the calling thread
+    private ParallelContext() {
+        pool = null;
+        threshold = Integer.MAX_VALUE;
+    }
+
+    //REQUIRES: parallelism >= 1
+    //EFFECTS: constructs a context using at most parallelism threads, splitting ranges of DEFAULT_THRESHOLD or more
+    public ParallelContext(int parallelism) {
+        this(parallelism, DEFAULT_THRESHOLD);
+    }
+
+    //REQUIRES: parallelism >= 1, threshold >= 1
+    //EFFECTS: constructs a context using at most parallelism threads, splitting ranges of threshold or more
+    public ParallelContext(int parallelism, int threshold) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+    }
+
+    //EFFECTS: returns the number of threads this context runs work on
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    //EFFECTS: runs the action over [from, to), split into pieces that may run at the same time
+    public void forEach(int from, int to, RangeAction action) {
+        forEach(from, to, threshold, action);
+    }
+
+    //REQUIRES: grain >= 1
+    //EFFECTS: runs the action over [from, to), split into pieces smaller than grain that may run at the same time.
+    //         used instead of this context's threshold when each index stands for a large piece of work.
+    public void forEach(int from, int to, int grain, RangeAction action) {
+        if (pool == null || to - from < Math.max(grain, 2)) {
+            action.run(from, to);
+        } else {
+            pool.invoke(new ActionTask(from, to, grain, action));
+        }
+    }
+
+    //EFFECTS: returns the sum of the results of running the action over pieces of [from, to)
+    public double sum(int from, int to, RangeSum sum) {
+        return sum(from, to, threshold, sum);
+    }
+
+    //REQUIRES: grain >= 1
+    //EFFECTS: returns the sum of the results of running the action over pieces of [from, to) smaller than grain.
+    //         used instead of this context's threshold when each index stands for a large piece of work.
+    public double sum(int from, int to, int grain, RangeSum sum) {
+        if (pool == null || to - from < Math.max(grain, 2)) {
+            return sum.sum(from, to);
+        }
+        return pool.invoke(new SumTask(from, to, grain, sum));
+    }
+
+    //EFFECTS: returns the sums of the width results of running the action over pieces of [from, to). the action adds
+    //         its results for a piece to the array it is given.
+    public double[] sums(int from, int to, int width, RangeSums sums) {
+        if (pool == null || to - from < Math.max(threshold, 2)) {
+            double[] result = new double[width];
+            sums.sum(from, to, result);
+            return result;
+        }
+        return pool.invoke(new SumsTask(from, to, width, sums));
+    }
+
+    //MODIFIES: this
+    //EFFECTS: stops the threads of this context; it must not be used afterwards
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static class ActionTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeAction action;
+
+        ActionTask(int from, int to, int grain, RangeAction action) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < Math.max(grain, 2)) {
+                action.run(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ActionTask(from, mid, grain, action), new ActionTask(mid, to, grain, action));
+            }
+        }
+    }
+
+    private static class SumTask extends RecursiveTask<Double> {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeSum sum;
+
+        SumTask(int from, int to, int grain, RangeSum sum) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.sum = sum;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from < Math.max(grain, 2)) {
+                return sum.sum(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(from, mid, grain, sum);
+            left.fork();
+            double right = new SumTask(mid, to, grain, sum).compute();
+            return left.join() + right;
+        }
+    }
+
+    private class SumsTask extends RecursiveTask<double[]> {
+        private final int from;
+        private final int to;
+        private final int width;
+        private final RangeSums sums;
+
+        SumsTask(int from, int to, int width, RangeSums sums) {
+            this.from = from;
+            this.to = to;
+            this.width = width;
+            this.sums = sums;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from < Math.max(threshold, 2)) {
+                double[] result = new double[width];
+                sums.sum(from, to, result);
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            SumsTask left = new SumsTask(from, mid, width, sums);
+            left.fork();
+            double[] result = new SumsTask(mid, to, width, sums).compute();
+            double[] other = left.join();
+            for (int i = 0; i < width; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+    }
+}
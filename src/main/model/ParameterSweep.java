@@ -0,0 +1,164 @@
+package model;
+
+import java.io.IOException;
+
+// a sweep of the observable Gate(a, b, c) over a grid of values of a, b and c. every such gate is a * Z + b * X + c * Y
+// scaled to have the eigenvalues 1 and -1, so its expectation value for a qubit is the dot product of (a, b, c) with
+// the qubit's Bloch vector over the length of (a, b, c), and the probability of its positive eigenvalue is
+// (1 + expectation) / 2. the Bloch vector is worked out once, so each point costs a few multiplications instead of a
+// gate and its eigenstates. the point (0, 0, 0) is not an observable, and gives NaN for both.
+// points are numbered with c changing fastest, then b, then a.
+public class ParameterSweep {
+
+    private static final int BLOCK_POINTS = 1 << 16;
+
+    private final Range rangeA;
+    private final Range rangeB;
+    private final Range rangeC;
+    private final long size;
+
+    // evenly spaced values from one number to another, both included
+    public static class Range {
+        private final double from;
+        private final double to;
+        private final int steps;
+
+        //REQUIRES: steps >= 1
+        //EFFECTS: constructs a range of steps values, from from to to; a range of one value is just from
+        public Range(double from, double to, int steps) {
+            if (steps < 1) {
+                throw new IllegalArgumentException("A range needs at least one step, not " + steps);
+            }
+            this.from = from;
+            this.to = to;
+            this.steps = steps;
+        }
+
+        public double getFrom() {
+            return from;
+        }
+
+        public double getTo() {
+            return to;
+        }
+
+        public int getSteps() {
+            return steps;
+        }
+
+        //REQUIRES: 0 <= index < getSteps()
+        //EFFECTS: returns the value at the given index of this range
+        public double get(int index) {
+            return steps == 1 ? from : from + (to - from) * index / (steps - 1);
+        }
+    }
+
+    // receives the results of a sweep, one point at a time and in order
+    public interface Output {
+        void point(double a, double b, double c, double probability, double expectation) throws IOException;
+    }
+
+    //EFFECTS: constructs a sweep over every combination of the values of a, b and c
+    //         throws IllegalArgumentException if there are more combinations than fit in a long
+    public ParameterSweep(Range a, Range b, Range c) {
+        this.rangeA = a;
+        this.rangeB = b;
+        this.rangeC = c;
+        try {
+            this.size = Math.multiplyExact(Math.multiplyExact((long) a.steps, b.steps), c.steps);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("A sweep of " + a.steps + " by " + b.steps + " by " + c.steps
+                    + " points is too big");
+        }
+    }
+
+    public Range getRangeA() {
+        return rangeA;
+    }
+
+    public Range getRangeB() {
+        return rangeB;
+    }
+
+    public Range getRangeC() {
+        return rangeC;
+    }
+
+    //EFFECTS: returns the number of points in this sweep
+    public long size() {
+        return size;
+    }
+
+    //REQUIRES: qubit.size() > 0
+    //EFFECTS: works out the expectation value and the probability of the positive eigenvalue of the gate at each
+    //         point for the qubit, and gives them to output in order. points are worked out in blocks, in parallel in
+    //         the qubit's context, and each block is handed to output before the next one is worked out.
+    public void run(Qubit qubit, Output output) throws IOException {
+        double[] bloch = qubit.getBlochVector();
+        ParallelContext context = qubit.getParallelContext();
+        long total = size();
+        double[] expectations = new double[(int) Math.min(BLOCK_POINTS, total)];
+        for (long start = 0; start < total; start += BLOCK_POINTS) {
+            int count = (int) Math.min(BLOCK_POINTS, total - start);
+            long first = start;
+            context.forEach(0, count, (from, to) -> expectations(bloch, first + from, to - from, expectations, from));
+            int k = (int) (start % rangeC.steps);
+            int j = (int) (start / rangeC.steps % rangeB.steps);
+            int i = (int) (start / rangeC.steps / rangeB.steps);
+            for (int p = 0; p < count; p++) {
+                double expectation = expectations[p];
+                output.point(rangeA.get(i), rangeB.get(j), rangeC.get(k), (1 + expectation) / 2, expectation);
+                if (++k == rangeC.steps) {
+                    k = 0;
+                    if (++j == rangeB.steps) {
+                        j = 0;
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+
+    //REQUIRES: qubit.size() > 0
+    //EFFECTS: returns the expectation value of the gate at each point for the qubit, in order
+    public double[] expectations(Qubit qubit) {
+        if (size() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("A sweep of " + size() + " points does not fit in an array");
+        }
+        double[] bloch = qubit.getBlochVector();
+        double[] result = new double[(int) size()];
+        qubit.getParallelContext().forEach(0, result.length,
+                (from, to) -> expectations(bloch, from, to - from, result, from));
+        return result;
+    }
+
+    //MODIFIES: out
+    //EFFECTS: puts the expectation values of count points from point first into out from offset, walking the grid
+    //         instead of dividing out the coordinates of every point
+    private void expectations(double[] bloch, long first, int count, double[] out, int offset) {
+        double rx = bloch[0];
+        double ry = bloch[1];
+        double rz = bloch[2];
+        int k = (int) (first % rangeC.steps);
+        int j = (int) (first / rangeC.steps % rangeB.steps);
+        int i = (int) (first / rangeC.steps / rangeB.steps);
+        int p = offset;
+        int end = offset + count;
+        while (p < end) {
+            double a = rangeA.get(i);
+            double b = rangeB.get(j);
+            double dot = a * rz + b * rx;
+            double length = a * a + b * b;
+            int run = Math.min(rangeC.steps - k, end - p);
+            for (int step = k; step < k + run; step++) {
+                double c = rangeC.get(step);
+                out[p++] = (dot + c * ry) / Math.sqrt(length + c * c);
+            }
+            k = 0;
+            if (++j == rangeB.steps) {
+                j = 0;
+                i++;
+            }
+        }
+    }
+}
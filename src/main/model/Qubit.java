@@ -1,28 +1,68 @@
 package model;
 
 import exceptions.NoStateToRemoveException;
+import instrumentation.GateEvent;
+import instrumentation.MeasurementEvent;
+import instrumentation.SimulatorMetrics;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
 
-// Represents a qubit, having a list of states and a list of their associated scaling in order to normalize the qubit
+// Represents a qubit, having a list of states and a list of their associated scaling in order to normalize the qubit.
+// The states are stored in a single array of doubles, four per state: (re, im) of the first number, then (re, im) of
+// the second number, so that each state is laid out like a single qubit StateVector.
+// The unscaled density matrix of the qubit, the sum of each state times its conjugate transpose, is kept as the
+// states change, so that probabilities, expectation values and the Bloch vector take constant time.
 public class Qubit implements Iterable<State> {
 
-    private ArrayList<State> states;
+    private static final int TERM_WIDTH = 4;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int TOP = 0;
+    private static final int BOTTOM = 1;
+    private static final int OFF_RE = 2;
+    private static final int OFF_IM = 3;
+
+    private double[] terms;
+    private int size;
     private double scaleFactor;
+    // the density matrix: |first|^2, |second|^2, and the real and imaginary parts of first times the conjugate of
+    // second, each summed over the states. the squared length of the qubit is its trace.
+    private final CompensatedSum[] density = {new CompensatedSum(), new CompensatedSum(), new CompensatedSum(),
+            new CompensatedSum()};
+    private ParallelContext context = ParallelContext.SEQUENTIAL;
+    private final Random random = new Random();
+    private AliasSampler sampler;
+    private StateIndex index;
+    private boolean mergeDuplicates;
 
     //EFFECTS: constructs a qubit in a single state
     public Qubit(State state) {
-        states = new ArrayList<>();
-        states.add(state);
+        this();
+        append(state.getFirstNumber().getX(), state.getFirstNumber().getY(), state.getSecondNumber().getX(),
+                state.getSecondNumber().getY());
         scaleFactor = state.normalize();
     }
 
     //EFFECTS: constructs a qubit with no states
     //NOTE: should only be called when loading a new qubit
     public Qubit() {
-        states = new ArrayList<>();
+        terms = new double[INITIAL_CAPACITY * TERM_WIDTH];
+    }
+
+    //EFFECTS: constructs a copy of the given qubit, with the same states, scaling and settings, that can be changed
+    //         without changing the original
+    public Qubit(Qubit other) {
+        terms = other.terms.clone();
+        size = other.size;
+        scaleFactor = other.scaleFactor;
+        for (int k = 0; k < density.length; k++) {
+            density[k].reset(other.density[k].getValue());
+        }
+        context = other.context;
+        mergeDuplicates = other.mergeDuplicates;
     }
 
     //getters
@@ -30,91 +70,341 @@ public class Qubit implements Iterable<State> {
         return scaleFactor;
     }
 
+    public ParallelContext getParallelContext() {
+        return context;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: sets the context that bulk operations on the states of this qubit are run with
+    public void setParallelContext(ParallelContext context) {
+        this.context = context;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: seeds the random numbers used by measure, so that the measurements can be repeated
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    //EFFECTS: returns the number of states in this
+    public int size() {
+        return size;
+    }
+
+    //REQUIRES: 0 <= index < size()
+    //EFFECTS: returns the state at the given index
+    public State getState(int index) {
+        int i = index * TERM_WIDTH;
+        return new State(new Complex(terms[i], terms[i + 1]), new Complex(terms[i + 2], terms[i + 3]));
+    }
+
+    //REQUIRES: 0 <= index < size(), 0 <= part < 4
+    //EFFECTS: returns one number of the state at the given index: part 0 and 1 are the real and imaginary parts of
+    //         its first number, part 2 and 3 those of its second number
+    public double getPart(int index, int part) {
+        return terms[index * TERM_WIDTH + part];
+    }
+
+    //EFFECTS: returns a copy of the states in this qubit
     public ArrayList<State> getStates() {
-        return this.states;
+        ArrayList<State> states = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            states.add(getState(i));
+        }
+        return states;
     }
 
     //MODIFIES: this
-    //EFFECTS: adds a new state to states, along with its scaling factor to scales, and normalizes scales
+    //EFFECTS: adds a new state to states, along with its scaling factor to scales, and normalizes scales.
+    //         the sum of the squared lengths of the states is kept as the states change, so this takes constant time.
+    //         if duplicates are merged and an equal state is already in this, that state is lengthened to carry the
+    //         probability of both instead.
     public void addState(State state) {
-        double sum = 0;
-        states.add(state);
-        for (State s : states) {
-            sum += 1 / (s.normalize() * s.normalize());
+        int existing = mergeDuplicates ? find(state) : -1;
+        if (existing < 0) {
+            append(state.getFirstNumber().getX(), state.getFirstNumber().getY(), state.getSecondNumber().getX(),
+                    state.getSecondNumber().getY());
+            SimulatorMetrics.get().statesStored(1);
+        } else {
+            merge(existing, state);
+        }
+        scaleFactor = 1 / Math.sqrt(normSquared());
+    }
+
+    //MODIFIES: this
+    //EFFECTS: adds a new state with the given real and imaginary parts of its first and second numbers, in the same
+    //         way as addState(State)
+    public void addState(double re1, double im1, double re2, double im2) {
+        if (mergeDuplicates) {
+            addState(new State(new Complex(re1, im1), new Complex(re2, im2)));
+        } else {
+            append(re1, im1, re2, im2);
+            SimulatorMetrics.get().statesStored(1);
+            scaleFactor = 1 / Math.sqrt(normSquared());
         }
-        scaleFactor = 1 / Math.sqrt(sum);
     }
 
     //MODIFIES: this
-    //EFFECTS: removes the given state and re-normalizes scales
+    //EFFECTS: removes the given state and re-normalizes scales. the last state takes the place of the removed one,
+    //         so that this takes constant time.
     public void removeState(State state) throws NoStateToRemoveException {
-        if (!(states.contains(state))) {
+        int removed = find(state);
+        if (removed < 0) {
             throw new NoStateToRemoveException();
         }
-        Complex zero = new Complex(0, 0);
-        State sumState = new State(zero, zero);
-        states.remove(state);
-        for (State s : states) {
-            sumState = sumState.addState(s);
+        addDensity(removed, -1);
+        int last = size - 1;
+        index.remove(removed);
+        if (removed != last) {
+            System.arraycopy(terms, last * TERM_WIDTH, terms, removed * TERM_WIDTH, TERM_WIDTH);
+            index.move(last, removed);
         }
-        scaleFactor = sumState.normalize();
+        size--;
+        sampler = null;
+        scaleFactor = 1 / Math.sqrt(normSquared());
+        SimulatorMetrics.get().statesStored(-1);
+    }
+
+    public boolean isMergingDuplicates() {
+        return mergeDuplicates;
     }
 
-    //EFFECTS: returns a random state that this could be in, with the probability dependent on the coefficients
+    //MODIFIES: this
+    //EFFECTS: sets whether addState merges a new state into an equal state already in this
+    public void setMergeDuplicates(boolean mergeDuplicates) {
+        this.mergeDuplicates = mergeDuplicates;
+    }
+
+    //EFFECTS: returns a random state that this could be in, with the probability dependent on the coefficients.
+    //         the returned qubit is seeded from this one, so a seeded qubit gives the same chain of measurements.
     public Qubit measure() {
-        ArrayList<State> weightedList = new ArrayList<>();
-        for (State s : states) {
-            double weight = (scaleFactor * scaleFactor) / (s.normalize() * s.normalize());
-            int intWeight = (int) (weight * 100);
-            while (intWeight > 0) {
-                weightedList.add(s);
-                intWeight--;
-            }
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        Qubit result = new Qubit(getState(getSampler().sample(random.nextDouble())));
+        result.setParallelContext(context);
+        result.setSeed(random.nextLong());
+        event.finish(size, 1);
+        return result;
+    }
+
+    //REQUIRES: size() > 0
+    //EFFECTS: measures this the given number of times, and returns how many times each state was measured
+    public int[] measure(int shots) {
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        AliasSampler table = getSampler();
+        int[] histogram = new int[size];
+        for (int i = 0; i < shots; i++) {
+            histogram[table.sample(random.nextDouble())]++;
         }
-        Random rand = new Random();
-        return new Qubit(weightedList.get(rand.nextInt(weightedList.size())));
+        event.finish(size, shots);
+        return histogram;
+    }
+
+    //REQUIRES: size() > 0
+    //EFFECTS: measures this the given number of times using random streams made from the seed, and returns how many
+    //         times each state was measured. the same seed always gives the same histogram, whatever the parallel
+    //         context of this qubit.
+    public int[] measure(int shots, long seed) {
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        int[] histogram = new ShotSampler(getSampler(), context).sample(shots, seed);
+        event.finish(size, shots);
+        return histogram;
     }
 
     //MODIFIES: this
-    //EFFECTS: transforms this using the given unitary matrix
-    @SuppressWarnings("SuspiciousListRemoveInLoop")
+    //EFFECTS: transforms this using the given unitary matrix. each state is treated as a single qubit register.
     public void transform(Gate gate) {
-        for (int i = 0; i < states.size(); i++) {
-            State newState = gate.multiply(states.get(i));
-            this.states.remove(i);
-            this.states.add(i, newState);
+        GateEvent event = new GateEvent();
+        event.begin();
+        double[] data = terms;
+        double[] matrix = gate.toArray(1);
+        context.forEach(0, size, (from, to) -> ComplexArrays.applyPairs(data, from, to, 1, matrix));
+        double[] sums = context.sums(0, size, density.length,
+                (from, to, result) -> ComplexArrays.pairDensity(data, from, to, result));
+        for (int k = 0; k < density.length; k++) {
+            density[k].reset(sums[k]);
         }
         scaleFactor *= gate.getScale();
+        sampler = null;
+        index = null;
+        event.finish(1, size);
+    }
+
+    //REQUIRES: gates is not empty
+    //MODIFIES: this
+    //EFFECTS: transforms this using each of the given gates in order, fusing them into one gate first so that the
+    //         states are only gone over once
+    public void transform(List<Gate> gates) {
+        transform(Gate.fuse(gates));
+    }
+
+    //MODIFIES: this
+    //EFFECTS: transforms this by the given rotation. a sequence of rotations should be composed with Rotation.then
+    //         first, so that the states are only gone over once.
+    public void rotate(Rotation rotation) {
+        transform(rotation.toGate());
     }
 
     //EFFECTS: measures the probability of an eigenvalue of a given gate.
     //         returns probability of measuring the positive eigenvalue if posOrNeg is true, negative otherwise.
     public double measureProbability(Gate gate, boolean posOrNeg) {
-        State eigenState = gate.getEigenState(posOrNeg);
-        Complex comp1 = eigenState.getFirstNumber();
-        Complex comp2 = eigenState.getSecondNumber();
-        State conjugate = new State(comp1.conjugate(), comp2.conjugate());
-        double sum = 0;
-        for (State s : states) {
-            sum += Math.pow(conjugate.innerProduct(s).absoluteValue(), 2);
-        }
-        double constant = scaleFactor * scaleFactor;
-        return sum * constant;
+        return probability(gate.getEigenConjugates(), posOrNeg ? 0 : 4);
     }
 
-    //EFFECTS: measures the expectation value, or the average of the eigenvalues, of a given gate
+    //EFFECTS: measures the probabilities of both eigenvalues of a given gate.
+    //         returns the probability of the positive eigenvalue first, then the negative one.
+    public double[] measureProbabilities(Gate gate) {
+        double[] conjugates = gate.getEigenConjugates();
+        return new double[] {probability(conjugates, 0), probability(conjugates, 4)};
+    }
+
+    //EFFECTS: measures the expectation value, or the average of the eigenvalues, of a given gate. this is the real
+    //         part of the trace of the density matrix times the gate, as Gate.multiply applies it.
     public double measureExpectationValue(Gate gate) {
-        Complex sum = new Complex(0, 0);
-        for (State s : states) {
-            State conjugate = new State(s.getFirstNumber().conjugate(), s.getSecondNumber().conjugate());
-            sum = sum.plus(s.innerProduct(gate.multiply(conjugate)));
-        }
+        double offRe = density[OFF_RE].getValue();
+        double offIm = density[OFF_IM].getValue();
+        double sum = density[TOP].getValue() * gate.getTopLeft().getX()
+                + density[BOTTOM].getValue() * gate.getBotRight().getX()
+                + offRe * (gate.getBotLeft().getX() + gate.getTopRight().getX())
+                + offIm * (gate.getTopRight().getY() - gate.getBotLeft().getY());
         double constant = scaleFactor * scaleFactor * gate.getScale();
-        return sum.getX() * constant;
+        return sum * constant;
+    }
+
+    //REQUIRES: size() > 0
+    //EFFECTS: returns the Bloch vector (x, y, z) of this, worked out from its density matrix. it has length 1 for a
+    //         single state and is shorter for a mixture.
+    public double[] getBlochVector() {
+        double constant = scaleFactor * scaleFactor;
+        return new double[] {2 * density[OFF_RE].getValue() * constant, -2 * density[OFF_IM].getValue() * constant,
+                (density[TOP].getValue() - density[BOTTOM].getValue()) * constant};
     }
 
     @Override
     public Iterator<State> iterator() {
-        return this.states.iterator();
+        return new Iterator<State>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public State next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getState(next++);
+            }
+        };
+    }
+
+    //MODIFIES: this
+    //EFFECTS: appends the numbers of a state to the end of terms, growing it if needed
+    private void append(double re1, double im1, double re2, double im2) {
+        if ((size + 1) * TERM_WIDTH > terms.length) {
+            double[] grown = new double[terms.length * 2];
+            System.arraycopy(terms, 0, grown, 0, size * TERM_WIDTH);
+            terms = grown;
+        }
+        int i = size * TERM_WIDTH;
+        terms[i] = re1;
+        terms[i + 1] = im1;
+        terms[i + 2] = re2;
+        terms[i + 3] = im2;
+        addDensity(size, 1);
+        if (index != null) {
+            index.add(terms, size, size + 1);
+        }
+        size++;
+        sampler = null;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: returns the index of a state equal to the given state, or -1 if there is none. builds the index of the
+    //         states if there is none yet.
+    private int find(State state) {
+        if (index == null) {
+            index = new StateIndex(terms, size);
+        }
+        return index.find(terms, state.getFirstNumber().getX(), state.getFirstNumber().getY(),
+                state.getSecondNumber().getX(), state.getSecondNumber().getY());
+    }
+
+    //MODIFIES: this
+    //EFFECTS: lengthens the state at the given index so that its probability is that of itself and the given state
+    private void merge(int existing, State state) {
+        double added = 1 / (state.normalize() * state.normalize());
+        int i = existing * TERM_WIDTH;
+        double before = normSquared(existing);
+        addDensity(existing, -1);
+        index.remove(existing);
+        if (before == 0) {
+            terms[i] = state.getFirstNumber().getX();
+            terms[i + 1] = state.getFirstNumber().getY();
+            terms[i + 2] = state.getSecondNumber().getX();
+            terms[i + 3] = state.getSecondNumber().getY();
+        } else {
+            ComplexArrays.scale(terms, 2 * existing, 2 * existing + 2, Math.sqrt((before + added) / before));
+        }
+        index.add(terms, existing, size);
+        addDensity(existing, 1);
+        sampler = null;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: returns the sampler for the probabilities of the states, building it if they changed since the last one
+    private AliasSampler getSampler() {
+        if (sampler == null) {
+            double[] weights = new double[size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = normSquared(i);
+            }
+            sampler = new AliasSampler(weights);
+        }
+        return sampler;
+    }
+
+    //EFFECTS: returns the probability of the eigenstate whose conjugate is at offset in conjugates, worked out from
+    //         the density matrix as the eigenstate's conjugate transpose times the density matrix times the eigenstate
+    private double probability(double[] conjugates, int offset) {
+        double re1 = conjugates[offset];
+        double im1 = conjugates[offset + 1];
+        double re2 = conjugates[offset + 2];
+        double im2 = conjugates[offset + 3];
+        double crossRe = re1 * re2 + im1 * im2;
+        double crossIm = im1 * re2 - re1 * im2;
+        double sum = (re1 * re1 + im1 * im1) * density[TOP].getValue()
+                + (re2 * re2 + im2 * im2) * density[BOTTOM].getValue()
+                + 2 * (crossRe * density[OFF_RE].getValue() - crossIm * density[OFF_IM].getValue());
+        return sum * scaleFactor * scaleFactor;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: adds the state at the given index times its conjugate transpose, multiplied by sign, to the density
+    //         matrix
+    private void addDensity(int index, double sign) {
+        int i = index * TERM_WIDTH;
+        double re1 = terms[i];
+        double im1 = terms[i + 1];
+        double re2 = terms[i + 2];
+        double im2 = terms[i + 3];
+        density[TOP].add(sign * (re1 * re1 + im1 * im1));
+        density[BOTTOM].add(sign * (re2 * re2 + im2 * im2));
+        density[OFF_RE].add(sign * (re1 * re2 + im1 * im2));
+        density[OFF_IM].add(sign * (im1 * re2 - re1 * im2));
+    }
+
+    //EFFECTS: returns the squared length of this, the sum of the squared lengths of its states
+    private double normSquared() {
+        return density[TOP].getValue() + density[BOTTOM].getValue();
+    }
+
+    //EFFECTS: returns the squared length of the state at the given index
+    private double normSquared(int index) {
+        return ComplexArrays.normSquared(terms, 2 * index, 2 * index + 2);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package model;
+
+import java.util.List;
+import java.util.Random;
+
+// a register of n qubits as a vector of 2^n complex amplitudes. the amplitude at index i belongs to the basis state
+// whose k-th qubit is the k-th bit of i. implementations differ in where the amplitudes are kept.
+public interface Register extends AutoCloseable {
+
+    int getNumQubits();
+
+    ParallelContext getParallelContext();
+
+    //MODIFIES: this
+    //EFFECTS: sets the context that gate applications and sums over this register are run with
+    void setParallelContext(ParallelContext context);
+
+    //EFFECTS: returns the number of amplitudes in this register, 2^n
+    default long getDimension() {
+        return 1L << getNumQubits();
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //EFFECTS: returns the amplitude of the given basis state
+    Complex getAmplitude(long index);
+
+    //REQUIRES: 0 <= index < getDimension()
+    //MODIFIES: this
+    //EFFECTS: sets the amplitude of the given basis state; the register is not renormalized
+    void setAmplitude(long index, Complex amplitude);
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //MODIFIES: this
+    //EFFECTS: applies the given gate, scaled by its normalizing scale, to the target qubit in the same way
+    //         Gate.multiply does to a state
+    void apply(Gate gate, int target);
+
+    //REQUIRES: gates and targets have the same length, every target is a qubit of this register
+    //MODIFIES: this
+    //EFFECTS: applies each gate to its target qubit in order. runs of gates on the same target are fused into one
+    //         gate first, so that the amplitudes are only gone over once per run.
+    default void apply(List<Gate> gates, int[] targets) {
+        int start = 0;
+        while (start < gates.size()) {
+            int end = start + 1;
+            while (end < gates.size() && targets[end] == targets[start]) {
+                end++;
+            }
+            apply(Gate.fuse(gates.subList(start, end)), targets[start]);
+            start = end;
+        }
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //EFFECTS: returns the probability of measuring the given basis state
+    double probability(long index);
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //EFFECTS: returns the probability of measuring the target qubit in its second basis state
+    double probabilityOfOne(int target);
+
+    //EFFECTS: returns the sum of the squared absolute values of all amplitudes
+    double normSquared();
+
+    //MODIFIES: this
+    //EFFECTS: scales the amplitudes so that the probabilities add up to 1
+    void normalize();
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //MODIFIES: this
+    //EFFECTS: measures the target qubit, collapsing this onto the outcome; returns true if the qubit was measured in
+    //         its second basis state
+    boolean measure(int target, Random random);
+
+    //EFFECTS: returns a random basis state, with the probability dependent on the amplitudes. this is not collapsed.
+    long sample(Random random);
+
+    //MODIFIES: this
+    //EFFECTS: releases the memory held by this register; it must not be used afterwards
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,130 @@
+package model;
+
+// represents a unitary 2x2 matrix as a rotation of the Bloch sphere, a unit quaternion (w, x, y, z) standing for the
+// matrix w * I - i * (x * X + y * Y + z * Z), times a global phase e^(i * phase). composing two rotations takes a
+// handful of multiplications instead of a product of complex matrices, so long sequences of rotations are composed
+// first and turned into a Gate only when they are applied. the global phase cannot be measured, but is kept so that
+// toGate gives exactly the usual matrices of the fixed gates.
+public final class Rotation {
+
+    public static final Rotation IDENTITY = new Rotation(1, 0, 0, 0, 0);
+    public static final Rotation X = new Rotation(0, 1, 0, 0, Math.PI / 2);
+    public static final Rotation Y = new Rotation(0, 0, 1, 0, Math.PI / 2);
+    public static final Rotation Z = new Rotation(0, 0, 0, 1, Math.PI / 2);
+    public static final Rotation H = new Rotation(0, Math.sqrt(0.5), 0, Math.sqrt(0.5), Math.PI / 2);
+    public static final Rotation S = phase(Math.PI / 2);
+    public static final Rotation T = phase(Math.PI / 4);
+
+    private final double w;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final double phase;
+    private Gate gate;
+
+    //REQUIRES: (w, x, y, z) has length 1
+    //EFFECTS: constructs the rotation with the given quaternion and global phase
+    private Rotation(double w, double x, double y, double z, double phase) {
+        this.w = w;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.phase = phase;
+    }
+
+    //EFFECTS: returns the rotation by angle about the axis (nx, ny, nz), which need not have length 1
+    //         throws IllegalArgumentException if the axis has length 0
+    public static Rotation about(double nx, double ny, double nz, double angle) {
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (!(length > 0)) {
+            throw new IllegalArgumentException("The axis of a rotation can't have length " + length);
+        }
+        double sin = Math.sin(angle / 2) / length;
+        return new Rotation(Math.cos(angle / 2), nx * sin, ny * sin, nz * sin, 0);
+    }
+
+    //EFFECTS: returns the rotation by angle about the x axis, e^(-i * angle * X / 2)
+    public static Rotation rx(double angle) {
+        return new Rotation(Math.cos(angle / 2), Math.sin(angle / 2), 0, 0, 0);
+    }
+
+    //EFFECTS: returns the rotation by angle about the y axis, e^(-i * angle * Y / 2)
+    public static Rotation ry(double angle) {
+        return new Rotation(Math.cos(angle / 2), 0, Math.sin(angle / 2), 0, 0);
+    }
+
+    //EFFECTS: returns the rotation by angle about the z axis, e^(-i * angle * Z / 2)
+    public static Rotation rz(double angle) {
+        return new Rotation(Math.cos(angle / 2), 0, 0, Math.sin(angle / 2), 0);
+    }
+
+    //EFFECTS: returns the phase gate that leaves |0> alone and multiplies |1> by e^(i * angle); this is the rotation
+    //         by angle about the z axis with a global phase of angle / 2
+    public static Rotation phase(double angle) {
+        return new Rotation(Math.cos(angle / 2), 0, 0, Math.sin(angle / 2), angle / 2);
+    }
+
+    //EFFECTS: returns the rotation rz(alpha) after ry(beta) after rz(gamma), given by its Euler angles
+    public static Rotation euler(double alpha, double beta, double gamma) {
+        return rz(gamma).then(ry(beta)).then(rz(alpha));
+    }
+
+    //getters
+    public double getW() {
+        return w;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public double getPhase() {
+        return phase;
+    }
+
+    //EFFECTS: returns the angle of this rotation of the Bloch sphere, between 0 and 2 * pi
+    public double getAngle() {
+        return 2 * Math.atan2(Math.sqrt(x * x + y * y + z * z), w);
+    }
+
+    //EFFECTS: returns the rotation that does this and then next, the Hamilton product of next and this
+    public Rotation then(Rotation next) {
+        double rw = next.w * w - next.x * x - next.y * y - next.z * z;
+        double rx = next.w * x + next.x * w + next.y * z - next.z * y;
+        double ry = next.w * y - next.x * z + next.y * w + next.z * x;
+        double rz = next.w * z + next.x * y - next.y * x + next.z * w;
+        double norm = 1 / Math.sqrt(rw * rw + rx * rx + ry * ry + rz * rz);
+        return new Rotation(rw * norm, rx * norm, ry * norm, rz * norm, phase + next.phase);
+    }
+
+    //EFFECTS: returns the rotation that undoes this one
+    public Rotation inverse() {
+        return new Rotation(w, -x, -y, -z, -phase);
+    }
+
+    //EFFECTS: returns the gate that transforms a state by this rotation, working it out the first time it is needed
+    public Gate toGate() {
+        if (gate == null) {
+            double cos = Math.cos(phase);
+            double sin = Math.sin(phase);
+            // the matrix is [[w - iz, -y - ix], [y - ix, w + iz]] times e^(i * phase); Gate.multiply uses the
+            // columns of a gate, so it is given the transpose
+            gate = new Gate(times(cos, sin, w, -z), times(cos, sin, y, -x), times(cos, sin, -y, -x),
+                    times(cos, sin, w, z));
+        }
+        return gate;
+    }
+
+    //EFFECTS: returns (cos + i * sin) times (re + i * im)
+    private static Complex times(double cos, double sin, double re, double im) {
+        return new Complex(cos * re - sin * im, cos * im + sin * re);
+    }
+}
@@ -0,0 +1,61 @@
+package model;
+
+import java.util.SplittableRandom;
+
+// measures many shots from an alias table, split into fixed blocks of shots that each get their own random stream.
+// the streams only depend on the seed and the block, so the same seed gives the same histogram no matter how many
+// threads the blocks are run on.
+public class ShotSampler {
+
+    public static final int BLOCK_SIZE = 1 << 16;
+
+    private final AliasSampler table;
+    private final ParallelContext context;
+
+    //EFFECTS: constructs a sampler picking from the given table, running blocks of shots with the given context
+    public ShotSampler(AliasSampler table, ParallelContext context) {
+        this.table = table;
+        this.context = context;
+    }
+
+    //REQUIRES: shots >= 0
+    //EFFECTS: picks from the table the given number of times, and returns how many times each index was picked
+    public int[] sample(int shots, long seed) {
+        int blocks = blockCount(shots);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        for (int i = 0; i < blocks; i++) {
+            streams[i] = root.split();
+        }
+        int[] histogram = new int[table.size()];
+        context.forEach(0, blocks, 2, (from, to) -> {
+            int[] counts = new int[histogram.length];
+            for (int block = from; block < to; block++) {
+                SplittableRandom stream = streams[block];
+                int length = blockLength(shots, block);
+                for (int shot = 0; shot < length; shot++) {
+                    counts[table.sample(stream.nextDouble())]++;
+                }
+            }
+            synchronized (histogram) {
+                for (int i = 0; i < counts.length; i++) {
+                    histogram[i] += counts[i];
+                }
+            }
+        });
+        return histogram;
+    }
+
+    //REQUIRES: shots >= 0
+    //EFFECTS: returns the number of blocks the given number of shots are split into
+    static int blockCount(int shots) {
+        return shots == 0 ? 0 : (shots - 1) / BLOCK_SIZE + 1;
+    }
+
+    //REQUIRES: shots >= 0, 0 <= block < blockCount(shots)
+    //EFFECTS: returns the number of shots in the given block; only the last block may be short. worked out in longs
+    //         so that it does not overflow for any number of shots.
+    static int blockLength(int shots, int block) {
+        return (int) Math.min(BLOCK_SIZE, shots - (long) block * BLOCK_SIZE);
+    }
+}
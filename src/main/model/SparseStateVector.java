@@ -0,0 +1,303 @@
+package model;
+
+import instrumentation.GateEvent;
+import instrumentation.MeasurementEvent;
+
+import java.util.Random;
+
+// represents a register of n qubits by its non-zero amplitudes only, kept in an AmplitudeMap from the index of a
+// basis state to its amplitude. amplitudes smaller than epsilon are dropped as they are made, so circuits that keep
+// few basis states in play (preparing basis states, permutations, oracles) take memory and time in proportion to
+// those states instead of to 2^n. once more than the dense fill of all amplitudes are in play, the register turns
+// itself into a StateVector, if it has few enough qubits, and hands everything to it from then on.
+public class SparseStateVector implements Register {
+
+    public static final int MAX_QUBITS = 62;
+    public static final double DEFAULT_EPSILON = 1e-12;
+    public static final double DEFAULT_DENSE_FILL = 0.125;
+
+    private final int numQubits;
+    private final double epsilon;
+    private final double denseFill;
+    private AmplitudeMap amplitudes;
+    private StateVector dense;
+    private ParallelContext context = ParallelContext.SEQUENTIAL;
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS
+    //EFFECTS: constructs a register of numQubits qubits, all in the first basis state, dropping amplitudes smaller
+    //         than DEFAULT_EPSILON and turning dense past DEFAULT_DENSE_FILL
+    public SparseStateVector(int numQubits) {
+        this(numQubits, DEFAULT_EPSILON, DEFAULT_DENSE_FILL);
+    }
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS, epsilon >= 0, 0 < denseFill
+    //EFFECTS: constructs a register of numQubits qubits, all in the first basis state, dropping amplitudes whose
+    //         absolute value is smaller than epsilon and turning dense once more than denseFill of the amplitudes
+    //         are kept. a dense fill of 1 or more keeps the register sparse.
+    public SparseStateVector(int numQubits, double epsilon, double denseFill) {
+        if (numQubits < 1 || numQubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("A register must have between 1 and " + MAX_QUBITS + " qubits");
+        }
+        if (!(epsilon >= 0) || !(denseFill > 0)) {
+            throw new IllegalArgumentException("Bad epsilon " + epsilon + " or dense fill " + denseFill);
+        }
+        this.numQubits = numQubits;
+        this.epsilon = epsilon;
+        this.denseFill = denseFill;
+        this.amplitudes = new AmplitudeMap(1);
+        amplitudes.put(0, 1, 0);
+    }
+
+    //getters
+    @Override
+    public int getNumQubits() {
+        return numQubits;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    @Override
+    public ParallelContext getParallelContext() {
+        return context;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: sets the context that gate applications and sums over this register are run with once it is dense;
+    //         while it is sparse, everything is run on the calling thread
+    @Override
+    public void setParallelContext(ParallelContext context) {
+        this.context = context;
+        if (dense != null) {
+            dense.setParallelContext(context);
+        }
+    }
+
+    //EFFECTS: returns true if this register has turned into a StateVector
+    public boolean isDense() {
+        return dense != null;
+    }
+
+    //EFFECTS: returns the number of amplitudes kept, which is every amplitude once this is dense
+    public long getStoredCount() {
+        return dense == null ? amplitudes.size() : getDimension();
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //EFFECTS: returns the amplitude of the given basis state
+    @Override
+    public Complex getAmplitude(long index) {
+        if (dense != null) {
+            return dense.getAmplitude(index);
+        }
+        checkIndex(index);
+        int slot = amplitudes.find(index);
+        return slot < 0 ? new Complex(0, 0) : new Complex(amplitudes.reAt(slot), amplitudes.imAt(slot));
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //MODIFIES: this
+    //EFFECTS: sets the amplitude of the given basis state; the register is not renormalized. an amplitude smaller
+    //         than epsilon is dropped.
+    @Override
+    public void setAmplitude(long index, Complex amplitude) {
+        if (dense != null) {
+            dense.setAmplitude(index, amplitude);
+            return;
+        }
+        checkIndex(index);
+        put(amplitudes, index, amplitude.getX(), amplitude.getY());
+        densifyIfFull();
+    }
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //MODIFIES: this
+    //EFFECTS: applies the given gate, scaled by its normalizing scale, to the target qubit in the same way
+    //         Gate.multiply does to a state. only the pairs of amplitudes with a kept amplitude are worked out.
+    @Override
+    public void apply(Gate gate, int target) {
+        if (dense != null) {
+            dense.apply(gate, target);
+            return;
+        }
+        checkTarget(target);
+        GateEvent event = new GateEvent();
+        event.begin();
+        long stride = 1L << target;
+        double[] m = gate.toArray(gate.getScale());
+        AmplitudeMap result = new AmplitudeMap(2 * amplitudes.size());
+        for (int slot = 0; slot < amplitudes.capacity(); slot++) {
+            long key = amplitudes.keyAt(slot);
+            if (key == AmplitudeMap.EMPTY || ((key & stride) != 0 && amplitudes.find(key ^ stride) >= 0)) {
+                // an empty slot, or the upper half of a pair that is worked out from its lower half
+                continue;
+            }
+            long lower = key & ~stride;
+            int lowerSlot = (key & stride) == 0 ? slot : -1;
+            int upperSlot = (key & stride) == 0 ? amplitudes.find(key | stride) : slot;
+            double re1 = lowerSlot < 0 ? 0 : amplitudes.reAt(lowerSlot);
+            double im1 = lowerSlot < 0 ? 0 : amplitudes.imAt(lowerSlot);
+            double re2 = upperSlot < 0 ? 0 : amplitudes.reAt(upperSlot);
+            double im2 = upperSlot < 0 ? 0 : amplitudes.imAt(upperSlot);
+            put(result, lower, re1 * m[0] - im1 * m[1] + re2 * m[4] - im2 * m[5],
+                    re1 * m[1] + im1 * m[0] + re2 * m[5] + im2 * m[4]);
+            put(result, lower | stride, re1 * m[2] - im1 * m[3] + re2 * m[6] - im2 * m[7],
+                    re1 * m[3] + im1 * m[2] + re2 * m[7] + im2 * m[6]);
+        }
+        amplitudes = result;
+        event.finish(1, amplitudes.size());
+        densifyIfFull();
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //EFFECTS: returns the probability of measuring the given basis state
+    @Override
+    public double probability(long index) {
+        if (dense != null) {
+            return dense.probability(index);
+        }
+        checkIndex(index);
+        int slot = amplitudes.find(index);
+        return slot < 0 ? 0 : probabilityAt(amplitudes, slot);
+    }
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //EFFECTS: returns the probability of measuring the target qubit in its second basis state
+    @Override
+    public double probabilityOfOne(int target) {
+        if (dense != null) {
+            return dense.probabilityOfOne(target);
+        }
+        checkTarget(target);
+        long stride = 1L << target;
+        double sum = 0;
+        for (int slot = 0; slot < amplitudes.capacity(); slot++) {
+            long key = amplitudes.keyAt(slot);
+            if (key != AmplitudeMap.EMPTY && (key & stride) != 0) {
+                sum += probabilityAt(amplitudes, slot);
+            }
+        }
+        return sum / normSquared();
+    }
+
+    //EFFECTS: returns the sum of the squared absolute values of all amplitudes
+    @Override
+    public double normSquared() {
+        return dense != null ? dense.normSquared() : amplitudes.normSquared();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: scales the amplitudes so that the probabilities add up to 1
+    @Override
+    public void normalize() {
+        if (dense != null) {
+            dense.normalize();
+        } else {
+            amplitudes.scale(1 / Math.sqrt(amplitudes.normSquared()));
+        }
+    }
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //MODIFIES: this
+    //EFFECTS: measures the target qubit, collapsing this onto the outcome; returns true if the qubit was measured in
+    //         its second basis state
+    @Override
+    public boolean measure(int target, Random random) {
+        if (dense != null) {
+            return dense.measure(target, random);
+        }
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        boolean one = random.nextDouble() < probabilityOfOne(target);
+        long stride = 1L << target;
+        AmplitudeMap result = new AmplitudeMap(amplitudes.size());
+        for (int slot = 0; slot < amplitudes.capacity(); slot++) {
+            long key = amplitudes.keyAt(slot);
+            if (key != AmplitudeMap.EMPTY && ((key & stride) != 0) == one) {
+                result.put(key, amplitudes.reAt(slot), amplitudes.imAt(slot));
+            }
+        }
+        event.finish(amplitudes.size(), 1);
+        amplitudes = result;
+        normalize();
+        return one;
+    }
+
+    //EFFECTS: returns a random basis state, with the probability dependent on the amplitudes. this is not collapsed.
+    //         the kept amplitudes are gone over in the order of the map, not of their basis states, so the same
+    //         random numbers may pick a different state than a dense register does.
+    @Override
+    public long sample(Random random) {
+        if (dense != null) {
+            return dense.sample(random);
+        }
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        double remaining = random.nextDouble() * amplitudes.normSquared();
+        long last = 0;
+        for (int slot = 0; slot < amplitudes.capacity(); slot++) {
+            long key = amplitudes.keyAt(slot);
+            if (key != AmplitudeMap.EMPTY) {
+                last = key;
+                remaining -= probabilityAt(amplitudes, slot);
+                if (remaining < 0) {
+                    break;
+                }
+            }
+        }
+        event.finish(amplitudes.size(), 1);
+        return last;
+    }
+
+    //MODIFIES: map
+    //EFFECTS: sets the amplitude of key in map, or removes key if the amplitude is smaller than epsilon
+    private void put(AmplitudeMap map, long key, double re, double im) {
+        if (re * re + im * im < epsilon * epsilon) {
+            map.remove(key);
+        } else {
+            map.put(key, re, im);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: turns this into a StateVector if more than the dense fill of the amplitudes are kept and it has few
+    //         enough qubits for one
+    private void densifyIfFull() {
+        if (numQubits > StateVector.MAX_QUBITS || amplitudes.size() <= denseFill * getDimension()) {
+            return;
+        }
+        StateVector vector = new StateVector(numQubits);
+        vector.setAmplitude(0, new Complex(0, 0));
+        for (int slot = 0; slot < amplitudes.capacity(); slot++) {
+            long key = amplitudes.keyAt(slot);
+            if (key != AmplitudeMap.EMPTY) {
+                vector.setAmplitude(key, new Complex(amplitudes.reAt(slot), amplitudes.imAt(slot)));
+            }
+        }
+        vector.setParallelContext(context);
+        dense = vector;
+        amplitudes = null;
+    }
+
+    //EFFECTS: returns the squared absolute value of the amplitude in the given slot of map
+    private static double probabilityAt(AmplitudeMap map, int slot) {
+        double re = map.reAt(slot);
+        double im = map.imAt(slot);
+        return re * re + im * im;
+    }
+
+    //EFFECTS: throws IllegalArgumentException if index is not a basis state of this register
+    private void checkIndex(long index) {
+        if (index < 0 || index >= getDimension()) {
+            throw new IllegalArgumentException("No basis state " + index + " in a register of " + numQubits);
+        }
+    }
+
+    //EFFECTS: throws IllegalArgumentException if target is not a qubit of this register
+    private void checkTarget(int target) {
+        if (target < 0 || target >= numQubits) {
+            throw new IllegalArgumentException("No qubit " + target + " in a register of " + numQubits);
+        }
+    }
+}
@@ -24,7 +24,12 @@ public class State {
 
     //EFFECTS: returns the inner product of two states
     public Complex innerProduct(State state) {
-        return (this.firstNumber.times(state.firstNumber).plus(this.secondNumber.times(state.secondNumber)));
+        Complex x = state.firstNumber;
+        Complex y = state.secondNumber;
+        return new Complex(firstNumber.getX() * x.getX() - firstNumber.getY() * x.getY()
+                + secondNumber.getX() * y.getX() - secondNumber.getY() * y.getY(),
+                firstNumber.getX() * x.getY() + firstNumber.getY() * x.getX()
+                + secondNumber.getX() * y.getY() + secondNumber.getY() * y.getX());
     }
 
     //EFFECTS: adds two states together
@@ -0,0 +1,208 @@
+package model;
+
+import java.util.Arrays;
+
+// an index of the states of a qubit, for finding a state equal to a given one (within Complex.THRESHOLD) in expected
+// constant time. each state is put in a bucket by rounding its four numbers to a grid of cells twice as wide as the
+// threshold, so an equal state is always in the same cell or the neighbouring one on the nearer side, in each number.
+// the states of a bucket are chained together through their index in the qubit's array of states.
+class StateIndex {
+
+    private static final double CELL = 2 * Complex.THRESHOLD;
+    private static final int TERM_WIDTH = 4;
+    private static final int NONE = -1;
+    private static final int INITIAL_TERMS = 4;
+
+    private long[] slotKeys;
+    private int[] slotHeads;
+    private boolean[] slotUsed;
+    private int usedSlots;
+
+    private long[] termKeys;
+    private int[] next;
+    private int[] prev;
+
+    //EFFECTS: constructs an index of the first size states in terms
+    StateIndex(double[] terms, int size) {
+        rebuild(terms, size);
+    }
+
+    //REQUIRES: 0 <= state < size, every other one of the first size states in terms is in this index and state is not
+    //MODIFIES: this
+    //EFFECTS: adds the state at the given index of terms to this. if the buckets are full, all size states are
+    //         indexed again instead.
+    void add(double[] terms, int state, int size) {
+        if (2 * (usedSlots + 1) > slotKeys.length) {
+            rebuild(terms, size);
+            return;
+        }
+        insert(terms, state);
+    }
+
+    //REQUIRES: state is in this index
+    //MODIFIES: this
+    //EFFECTS: removes the state at the given index from this, freeing its bucket if it was the last one in it
+    void remove(int state) {
+        if (prev[state] != NONE) {
+            next[prev[state]] = next[state];
+        } else {
+            int slot = slotFor(termKeys[state]);
+            slotHeads[slot] = next[state];
+            if (next[state] == NONE) {
+                freeSlot(slot);
+            }
+        }
+        if (next[state] != NONE) {
+            prev[next[state]] = prev[state];
+        }
+    }
+
+    //REQUIRES: from is in this index, nothing in this index is at to
+    //MODIFIES: this
+    //EFFECTS: records that the state at index from has been moved to index to
+    void move(int from, int to) {
+        termKeys[to] = termKeys[from];
+        prev[to] = prev[from];
+        next[to] = next[from];
+        if (prev[to] != NONE) {
+            next[prev[to]] = to;
+        } else {
+            slotHeads[slotFor(termKeys[to])] = to;
+        }
+        if (next[to] != NONE) {
+            prev[next[to]] = to;
+        }
+    }
+
+    //EFFECTS: returns the index of a state in terms equal to the given numbers within Complex.THRESHOLD,
+    //         or -1 if there is none
+    int find(double[] terms, double re1, double im1, double re2, double im2) {
+        long[] cells = new long[TERM_WIDTH * 2];
+        double[] numbers = {re1, im1, re2, im2};
+        for (int k = 0; k < TERM_WIDTH; k++) {
+            double scaled = numbers[k] / CELL;
+            long cell = (long) Math.floor(scaled);
+            cells[2 * k] = cell;
+            cells[2 * k + 1] = scaled - cell < 0.5 ? cell - 1 : cell + 1;
+        }
+        for (int choice = 0; choice < 1 << TERM_WIDTH; choice++) {
+            long key = key(cells[choice & 1], cells[2 + ((choice >> 1) & 1)], cells[4 + ((choice >> 2) & 1)],
+                    cells[6 + ((choice >> 3) & 1)]);
+            int slot = slotFor(key);
+            if (!slotUsed[slot]) {
+                continue;
+            }
+            for (int state = slotHeads[slot]; state != NONE; state = next[state]) {
+                if (matches(terms, state, numbers)) {
+                    return state;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    //REQUIRES: state is not in this index, there is a free bucket
+    //MODIFIES: this
+    //EFFECTS: puts the state at the given index of terms in its bucket
+    private void insert(double[] terms, int state) {
+        if (state >= termKeys.length) {
+            termKeys = Arrays.copyOf(termKeys, Math.max(2 * termKeys.length, state + 1));
+            next = Arrays.copyOf(next, termKeys.length);
+            prev = Arrays.copyOf(prev, termKeys.length);
+        }
+        int i = state * TERM_WIDTH;
+        long key = key(cell(terms[i]), cell(terms[i + 1]), cell(terms[i + 2]), cell(terms[i + 3]));
+        int slot = slotFor(key);
+        if (!slotUsed[slot]) {
+            slotUsed[slot] = true;
+            slotKeys[slot] = key;
+            slotHeads[slot] = NONE;
+            usedSlots++;
+        }
+        termKeys[state] = key;
+        prev[state] = NONE;
+        next[state] = slotHeads[slot];
+        if (next[state] != NONE) {
+            prev[next[state]] = state;
+        }
+        slotHeads[slot] = state;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: throws away this index and indexes the first size states in terms again
+    private void rebuild(double[] terms, int size) {
+        int capacity = 16;
+        while (capacity < 4 * (size + 1)) {
+            capacity *= 2;
+        }
+        slotKeys = new long[capacity];
+        slotHeads = new int[capacity];
+        slotUsed = new boolean[capacity];
+        usedSlots = 0;
+        int length = Math.max(termKeys == null ? 0 : termKeys.length, Math.max(size, INITIAL_TERMS));
+        termKeys = new long[length];
+        next = new int[length];
+        prev = new int[length];
+        for (int state = 0; state < size; state++) {
+            insert(terms, state);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: frees the given bucket, moving back the buckets probed after it that would otherwise not be found
+    private void freeSlot(int hole) {
+        int mask = slotKeys.length - 1;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (!slotUsed[slot]) {
+                break;
+            }
+            // a bucket can fill the hole if the hole lies between the slot it hashes to and the slot it is in
+            int home = (int) slotKeys[slot] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                slotKeys[hole] = slotKeys[slot];
+                slotHeads[hole] = slotHeads[slot];
+                hole = slot;
+            }
+        }
+        slotUsed[hole] = false;
+        usedSlots--;
+    }
+
+    //EFFECTS: returns the slot holding key, or the empty slot where it would go
+    private int slotFor(long key) {
+        int mask = slotKeys.length - 1;
+        int slot = (int) key & mask;
+        while (slotUsed[slot] && slotKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    //EFFECTS: returns true if the state at the given index of terms is equal to numbers within Complex.THRESHOLD
+    private static boolean matches(double[] terms, int state, double[] numbers) {
+        int i = state * TERM_WIDTH;
+        for (int k = 0; k < TERM_WIDTH; k++) {
+            if (!(Math.abs(terms[i + k] - numbers[k]) < Complex.THRESHOLD)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //EFFECTS: returns the grid cell a number falls in
+    private static long cell(double x) {
+        return (long) Math.floor(x / CELL);
+    }
+
+    //EFFECTS: returns a well mixed hash of four grid cells
+    private static long key(long c0, long c1, long c2, long c3) {
+        long h = c0 * 0x9E3779B97F4A7C15L + c1 * 0xC2B2AE3D27D4EB4FL + c2 * 0x165667B19E3779F9L
+                + c3 * 0xD6E8FEB86659FD93L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
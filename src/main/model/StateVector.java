@@ -0,0 +1,194 @@
+package model;
+
+import instrumentation.GateEvent;
+import instrumentation.MeasurementEvent;
+
+import java.util.Random;
+
+// represents a register of n qubits as a vector of 2^n complex amplitudes, stored as (re, im) pairs in one array on
+// the Java heap. the amplitude at index i belongs to the basis state whose k-th qubit is the k-th bit of i.
+public class StateVector implements Register {
+
+    public static final int MAX_QUBITS = 29;
+
+    private final int numQubits;
+    private final double[] amplitudes;
+    private ParallelContext context = ParallelContext.SEQUENTIAL;
+
+    //REQUIRES: 1 <= numQubits <= MAX_QUBITS
+    //EFFECTS: constructs a register of numQubits qubits, all in the first basis state
+    public StateVector(int numQubits) {
+        if (numQubits < 1 || numQubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("A register must have between 1 and " + MAX_QUBITS + " qubits");
+        }
+        this.numQubits = numQubits;
+        this.amplitudes = new double[2 << numQubits];
+        amplitudes[0] = 1;
+    }
+
+    //EFFECTS: constructs a register of a single qubit in the given state, normalized
+    public StateVector(State state) {
+        this(1);
+        double scale = state.normalize();
+        amplitudes[0] = state.getFirstNumber().getX() * scale;
+        amplitudes[1] = state.getFirstNumber().getY() * scale;
+        amplitudes[2] = state.getSecondNumber().getX() * scale;
+        amplitudes[3] = state.getSecondNumber().getY() * scale;
+    }
+
+    //getters
+    @Override
+    public int getNumQubits() {
+        return numQubits;
+    }
+
+    @Override
+    public ParallelContext getParallelContext() {
+        return context;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: sets the context that gate applications and sums over this register are run with
+    @Override
+    public void setParallelContext(ParallelContext context) {
+        this.context = context;
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //EFFECTS: returns the amplitude of the given basis state
+    @Override
+    public Complex getAmplitude(long index) {
+        int i = (int) index * 2;
+        return new Complex(amplitudes[i], amplitudes[i + 1]);
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //MODIFIES: this
+    //EFFECTS: sets the amplitude of the given basis state; the register is not renormalized
+    @Override
+    public void setAmplitude(long index, Complex amplitude) {
+        int i = (int) index * 2;
+        amplitudes[i] = amplitude.getX();
+        amplitudes[i + 1] = amplitude.getY();
+    }
+
+    //EFFECTS: returns this register as a single qubit state
+    //         throws IllegalStateException if this register has more than one qubit
+    public State toState() {
+        if (numQubits != 1) {
+            throw new IllegalStateException("Only a single qubit register can be turned into a state");
+        }
+        return new State(getAmplitude(0), getAmplitude(1));
+    }
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //MODIFIES: this
+    //EFFECTS: applies the given gate, scaled by its normalizing scale, to the target qubit in the same way
+    //         Gate.multiply does to a state
+    @Override
+    public void apply(Gate gate, int target) {
+        checkTarget(target);
+        GateEvent event = new GateEvent();
+        event.begin();
+        int stride = 1 << target;
+        double[] matrix = gate.toArray(gate.getScale());
+        context.forEach(0, amplitudes.length / 4,
+                (from, to) -> ComplexArrays.applyPairs(amplitudes, from, to, stride, matrix));
+        event.finish(1, getDimension());
+    }
+
+    //REQUIRES: 0 <= index < getDimension()
+    //EFFECTS: returns the probability of measuring the given basis state
+    @Override
+    public double probability(long index) {
+        int i = (int) index * 2;
+        return amplitudes[i] * amplitudes[i] + amplitudes[i + 1] * amplitudes[i + 1];
+    }
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //EFFECTS: returns the probability of measuring the target qubit in its second basis state
+    @Override
+    public double probabilityOfOne(int target) {
+        checkTarget(target);
+        int stride = 1 << target;
+        // pair p's second number is the p-th number with the target qubit set
+        double sum = context.sum(0, amplitudes.length / 4, (from, to) -> {
+            double part = 0;
+            int pair = from;
+            while (pair < to) {
+                int offset = pair & (stride - 1);
+                int run = Math.min(stride - offset, to - pair);
+                int start = 2 * (pair - offset) + stride + offset;
+                part += ComplexArrays.normSquared(amplitudes, start, start + run);
+                pair += run;
+            }
+            return part;
+        });
+        return sum / normSquared();
+    }
+
+    //EFFECTS: returns the sum of the squared absolute values of all amplitudes
+    @Override
+    public double normSquared() {
+        return context.sum(0, amplitudes.length / 2, (from, to) -> ComplexArrays.normSquared(amplitudes, from, to));
+    }
+
+    //MODIFIES: this
+    //EFFECTS: scales the amplitudes so that the probabilities add up to 1
+    @Override
+    public void normalize() {
+        double factor = 1 / Math.sqrt(normSquared());
+        context.forEach(0, amplitudes.length / 2, (from, to) -> ComplexArrays.scale(amplitudes, from, to, factor));
+    }
+
+    //REQUIRES: 0 <= target < getNumQubits()
+    //MODIFIES: this
+    //EFFECTS: measures the target qubit, collapsing this onto the outcome; returns true if the qubit was measured in
+    //         its second basis state
+    @Override
+    public boolean measure(int target, Random random) {
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        boolean one = random.nextDouble() < probabilityOfOne(target);
+        int stride = 1 << target;
+        for (int i = one ? 0 : stride; i < amplitudes.length / 2; i += 2 * stride) {
+            ComplexArrays.scale(amplitudes, i, i + stride, 0);
+        }
+        normalize();
+        event.finish(getDimension(), 1);
+        return one;
+    }
+
+    //EFFECTS: returns a random basis state, with the probability dependent on the amplitudes. this is not collapsed.
+    @Override
+    public long sample(Random random) {
+        MeasurementEvent event = new MeasurementEvent();
+        event.begin();
+        long index = pick(random.nextDouble() * normSquared());
+        event.finish(getDimension(), 1);
+        return index;
+    }
+
+    //EFFECTS: returns the first basis state at which the running sum of the probabilities passes remaining
+    private long pick(double remaining) {
+        int last = 0;
+        for (int i = 0; i < amplitudes.length / 2; i++) {
+            double p = probability(i);
+            if (p > 0) {
+                last = i;
+                remaining -= p;
+                if (remaining < 0) {
+                    return i;
+                }
+            }
+        }
+        return last;
+    }
+
+    //EFFECTS: throws IllegalArgumentException if target is not a qubit of this register
+    private void checkTarget(int target) {
+        if (target < 0 || target >= numQubits) {
+            throw new IllegalArgumentException("No qubit " + target + " in a register of " + numQubits);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// where the amplitudes of a register are kept. the mode a job uses can be chosen without changing its code through
+// the qubit.storage system property, e.g. -Dqubit.storage=mapped.
+public enum StorageMode {
+    HEAP {
+        @Override
+        public Register create(int numQubits) {
+            return new StateVector(numQubits);
+        }
+    },
+    OFF_HEAP {
+        @Override
+        public Register create(int numQubits) {
+            return new OffHeapStateVector(numQubits);
+        }
+    },
+    MAPPED {
+        @Override
+        public Register create(int numQubits) {
+            try {
+                return new MappedStateVector(numQubits);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+    SPARSE {
+        @Override
+        public Register create(int numQubits) {
+            return new SparseStateVector(numQubits);
+        }
+    };
+
+    public static final String PROPERTY = "qubit.storage";
+
+    //EFFECTS: constructs a register of numQubits qubits kept this way, all in the first basis state
+    //         throws UncheckedIOException if a scratch file for a MAPPED register can't be made
+    public abstract Register create(int numQubits);
+
+    //EFFECTS: returns the mode named by the qubit.storage system property, ignoring case and treating "-" as "_",
+    //         or HEAP if it is not set
+    //         throws IllegalArgumentException if the property names no mode
+    public static StorageMode configured() {
+        String name = System.getProperty(PROPERTY);
+        if (name == null) {
+            return HEAP;
+        }
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,10 @@
+package persistence;
+
+// is told how far a long running save or load has got
+public interface ProgressListener {
+
+    ProgressListener NONE = (done, total) -> { };
+
+    //EFFECTS: called with how much of the work is done out of the total; both are in the same units, e.g. bytes
+    void progress(long done, long total);
+}
@@ -0,0 +1,310 @@
+package persistence;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import exceptions.InvalidFileException;
+import instrumentation.PersistenceEvent;
+import instrumentation.SimulatorMetrics;
+import model.Qubit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+// saves qubits to files and loads them back. qubits are saved in a binary format: a header of the magic bytes "QBIT",
+// the format version and the number of states, followed by four little-endian doubles per state. they can also be
+// saved as JSON, which is streamed one state at a time in both directions; JSON files are recognized when loading.
+public class QubitFile {
+
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = "QBIT".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 16;
+    private static final int STATE_SIZE = 4 * Double.BYTES;
+    private static final int BUFFER_STATES = 2048;
+    private static final long MAX_MAPPED_STATES = Integer.MAX_VALUE / STATE_SIZE;
+    private static final int PROGRESS_STATES = 1 << 14;
+
+    private QubitFile() {
+    }
+
+    //EFFECTS: saves the qubit to the given file in the binary format, replacing anything already in it
+    public static void save(Qubit qubit, File file) throws IOException {
+        save(qubit, file, ProgressListener.NONE);
+    }
+
+    //EFFECTS: saves the qubit to the given file in the binary format, replacing anything already in it, telling the
+    //         listener how many states have been written
+    public static void save(Qubit qubit, File file, ProgressListener listener) throws IOException {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_STATES * STATE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC).putInt(VERSION).putLong(qubit.size());
+            for (int i = 0; i < qubit.size(); i++) {
+                if (buffer.remaining() < STATE_SIZE) {
+                    writeAll(channel, buffer);
+                    listener.progress(i, qubit.size());
+                }
+                for (int part = 0; part < 4; part++) {
+                    buffer.putDouble(qubit.getPart(i, part));
+                }
+            }
+            writeAll(channel, buffer);
+            listener.progress(qubit.size(), qubit.size());
+        }
+        finish(event, "save", "binary", file, qubit.size(), start);
+    }
+
+    //EFFECTS: saves the qubit to the given file in the JSON format, one state at a time
+    public static void saveJson(Qubit qubit, File file) throws IOException {
+        saveJson(qubit, file, ProgressListener.NONE);
+    }
+
+    //EFFECTS: saves the qubit to the given file in the JSON format, one state at a time, telling the listener how
+    //         many states have been written
+    public static void saveJson(Qubit qubit, File file, ProgressListener listener) throws IOException {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            writer.beginArray();
+            for (int i = 0; i < qubit.size(); i++) {
+                writer.beginObject();
+                writer.name("firstNumber");
+                writeComplex(writer, qubit.getPart(i, 0), qubit.getPart(i, 1));
+                writer.name("secondNumber");
+                writeComplex(writer, qubit.getPart(i, 2), qubit.getPart(i, 3));
+                writer.endObject();
+                if (i % PROGRESS_STATES == 0) {
+                    listener.progress(i, qubit.size());
+                }
+            }
+            writer.endArray();
+            listener.progress(qubit.size(), qubit.size());
+        }
+        finish(event, "save", "json", file, qubit.size(), start);
+    }
+
+    //EFFECTS: loads a qubit from the given file, in the binary format or in the JSON format
+    //         throws InvalidFileException if the file is in neither
+    public static Qubit load(File file) throws IOException {
+        return load(file, ProgressListener.NONE);
+    }
+
+    //EFFECTS: loads a qubit from the given file, in the binary format or in the JSON format, telling the listener how
+    //         many bytes of the file have been read
+    //         throws InvalidFileException if the file is in neither
+    public static Qubit load(File file, ProgressListener listener) throws IOException {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean binary = isBinary(file);
+        Qubit qubit = binary ? loadBinary(file, listener) : loadJson(file, listener);
+        finish(event, "load", binary ? "binary" : "json", file, qubit.size(), start);
+        return qubit;
+    }
+
+    //EFFECTS: returns true if the given file starts with the magic bytes of the binary format
+    public static boolean isBinary(File file) throws IOException {
+        byte[] start = new byte[MAGIC.length];
+        try (InputStream in = new FileInputStream(file)) {
+            int read = in.readNBytes(start, 0, start.length);
+            if (read < start.length) {
+                return false;
+            }
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (start[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //EFFECTS: loads a qubit from a file in the binary format, mapping the file into memory instead of copying it
+    private static Qubit loadBinary(File file, ProgressListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is full or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE) {
+                throw new InvalidFileException();
+            }
+            header.position(MAGIC.length);
+            int version = header.getInt();
+            long count = header.getLong();
+            // compared by division, since count * STATE_SIZE can overflow for a corrupt count
+            if (version != VERSION || count < 0 || count > (channel.size() - HEADER_SIZE) / STATE_SIZE
+                    || count > Integer.MAX_VALUE) {
+                throw new InvalidFileException();
+            }
+            Qubit qubit = new Qubit();
+            long done = 0;
+            while (done < count) {
+                long states = Math.min(count - done, MAX_MAPPED_STATES);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + done * STATE_SIZE, states * STATE_SIZE);
+                DoubleBuffer doubles = mapped.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                while (doubles.hasRemaining()) {
+                    qubit.addState(doubles.get(), doubles.get(), doubles.get(), doubles.get());
+                    if (qubit.size() % PROGRESS_STATES == 0) {
+                        listener.progress(HEADER_SIZE + (long) qubit.size() * STATE_SIZE, channel.size());
+                    }
+                }
+                done += states;
+            }
+            listener.progress(channel.size(), channel.size());
+            return qubit;
+        }
+    }
+
+    //EFFECTS: loads a qubit from a file in the JSON format one state at a time, skipping any other fields such as
+    //         the scale saved by older versions
+    //         throws InvalidFileException if a state is missing its first or second number
+    private static Qubit loadJson(File file, ProgressListener listener) throws IOException {
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try (JsonReader reader = new JsonReader(new InputStreamReader(counter, StandardCharsets.UTF_8))) {
+            Qubit qubit = new Qubit();
+            double[] parts = new double[4];
+            reader.beginArray();
+            while (reader.hasNext()) {
+                boolean first = false;
+                boolean second = false;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals("firstNumber")) {
+                        readComplex(reader, parts, 0);
+                        first = true;
+                    } else if (name.equals("secondNumber")) {
+                        readComplex(reader, parts, 2);
+                        second = true;
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (!first || !second) {
+                    throw new InvalidFileException();
+                }
+                qubit.addState(parts[0], parts[1], parts[2], parts[3]);
+                if (qubit.size() % PROGRESS_STATES == 0) {
+                    listener.progress(counter.getCount(), file.length());
+                }
+            }
+            reader.endArray();
+            listener.progress(file.length(), file.length());
+            return qubit;
+        } catch (IllegalStateException | NumberFormatException | MalformedJsonException | EOFException e) {
+            throw new InvalidFileException();
+        }
+    }
+
+    //MODIFIES: parts
+    //EFFECTS: reads a complex number object into parts[offset] (real part) and parts[offset + 1] (imaginary part)
+    private static void readComplex(JsonReader reader, double[] parts, int offset) throws IOException {
+        parts[offset] = 0;
+        parts[offset + 1] = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("re")) {
+                parts[offset] = reader.nextDouble();
+            } else if (name.equals("im")) {
+                parts[offset + 1] = reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    //EFFECTS: writes a complex number object with the given real and imaginary parts
+    private static void writeComplex(JsonWriter writer, double re, double im) throws IOException {
+        writer.beginObject();
+        writer.name("re").value(re);
+        writer.name("im").value(im);
+        writer.endObject();
+    }
+
+    //EFFECTS: counts a save or load of the file that began at start in the simulator's metrics, and records it in
+    //         the event if that is enabled
+    private static void finish(PersistenceEvent event, String operation, String format, File file, long states,
+                               long start) {
+        long bytes = file.length();
+        long nanos = System.nanoTime() - start;
+        if (operation.equals("save")) {
+            SimulatorMetrics.get().saved(bytes, nanos);
+        } else {
+            SimulatorMetrics.get().loaded(bytes, nanos);
+        }
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.format = format;
+            event.path = file.getPath();
+            event.states = states;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    //MODIFIES: buffer
+    //EFFECTS: writes everything put in the buffer to the channel, and clears the buffer
+    static void writeAll(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // an input stream that counts the bytes read through it
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package persistence;
+
+import exceptions.InvalidFileException;
+import model.ParameterSweep;
+import model.Qubit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+// writes the results of a parameter sweep to files as they are worked out, so a sweep never has to be held in memory.
+// results are written as CSV, one line per point, or in a binary format: a header of the magic bytes "QSWP", the
+// format version, and the from, to and steps of the ranges of a, b and c, followed by the probability and expectation
+// value of each point as two little-endian doubles. the points of a binary file are in the order of the sweep, so
+// their coordinates are worked out from the header instead of being written.
+public class SweepFile {
+
+    public static final int VERSION = 1;
+    public static final String CSV_HEADER = "a,b,c,probability,expectation";
+
+    private static final byte[] MAGIC = "QSWP".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 8 + 3 * (2 * Double.BYTES + Integer.BYTES);
+    private static final int POINT_SIZE = 2 * Double.BYTES;
+    private static final int BUFFER_POINTS = 4096;
+
+    private SweepFile() {
+    }
+
+    //REQUIRES: qubit.size() > 0
+    //EFFECTS: runs the sweep for the qubit and writes the results to the given file as CSV, replacing anything
+    //         already in it
+    public static void saveCsv(ParameterSweep sweep, Qubit qubit, File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            StringBuilder line = new StringBuilder();
+            sweep.run(qubit, (a, b, c, probability, expectation) -> {
+                line.setLength(0);
+                line.append(a).append(',').append(b).append(',').append(c).append(',')
+                        .append(probability).append(',').append(expectation).append('\n');
+                writer.append(line);
+            });
+        }
+    }
+
+    //REQUIRES: qubit.size() > 0
+    //EFFECTS: runs the sweep for the qubit and writes the results to the given file in the binary format, replacing
+    //         anything already in it
+    public static void save(ParameterSweep sweep, Qubit qubit, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_POINTS * POINT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC).putInt(VERSION);
+            putRange(buffer, sweep.getRangeA());
+            putRange(buffer, sweep.getRangeB());
+            putRange(buffer, sweep.getRangeC());
+            sweep.run(qubit, (a, b, c, probability, expectation) -> {
+                if (buffer.remaining() < POINT_SIZE) {
+                    QubitFile.writeAll(channel, buffer);
+                }
+                buffer.putDouble(probability).putDouble(expectation);
+            });
+            QubitFile.writeAll(channel, buffer);
+        }
+    }
+
+    //EFFECTS: returns the sweep a file in the binary format was made with
+    //         throws InvalidFileException if the file is not in the binary format
+    public static ParameterSweep loadSweep(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return readHeader(in, file.length());
+        }
+    }
+
+    //EFFECTS: returns the probability and expectation value of each point of a file in the binary format, as
+    //         (probability, expectation) pairs in the order of the sweep
+    //         throws InvalidFileException if the file is not in the binary format
+    public static double[] load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            ParameterSweep sweep = readHeader(in, file.length());
+            if (2 * sweep.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("A sweep of " + sweep.size() + " points does not fit in an array");
+            }
+            double[] result = new double[(int) (2 * sweep.size())];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = Double.longBitsToDouble(Long.reverseBytes(in.readLong()));
+            }
+            return result;
+        }
+    }
+
+    //MODIFIES: buffer
+    //EFFECTS: puts the from, to and steps of the range in the buffer
+    private static void putRange(ByteBuffer buffer, ParameterSweep.Range range) {
+        buffer.putDouble(range.getFrom()).putDouble(range.getTo()).putInt(range.getSteps());
+    }
+
+    //EFFECTS: reads the header of a file in the binary format of the given length, and returns its sweep
+    //         throws InvalidFileException if the header is not valid or the file is too short for its points
+    private static ParameterSweep readHeader(DataInputStream in, long length) throws IOException {
+        try {
+            byte[] header = new byte[HEADER_SIZE];
+            in.readFully(header);
+            ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+            for (byte b : MAGIC) {
+                if (buffer.get() != b) {
+                    throw new InvalidFileException();
+                }
+            }
+            if (buffer.getInt() != VERSION) {
+                throw new InvalidFileException();
+            }
+            ParameterSweep sweep = new ParameterSweep(readRange(buffer), readRange(buffer), readRange(buffer));
+            // compared by division, since sweep.size() * POINT_SIZE can overflow for corrupt step counts
+            if (sweep.size() > (length - HEADER_SIZE) / POINT_SIZE) {
+                throw new InvalidFileException();
+            }
+            return sweep;
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new InvalidFileException();
+        }
+    }
+
+    //EFFECTS: reads the from, to and steps of a range from the buffer
+    private static ParameterSweep.Range readRange(ByteBuffer buffer) {
+        return new ParameterSweep.Range(buffer.getDouble(), buffer.getDouble(), buffer.getInt());
+    }
+}
@@ -0,0 +1,113 @@
+package ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+
+// draws a Bloch sphere with the Bloch vector of the qubit as an arrow, or with no arrow for a qubit with no states. the
+// sphere, its axes and their labels are drawn once into an image for each size of the panel, so a repaint only copies
+// that image and draws the arrow.
+public class BlochSpherePanel extends JPanel {
+
+    // how much of the x axis, which points out of the screen, is seen
+    private static final double DEPTH = 0.4;
+    private static final Color ARROW = new Color(200, 40, 40);
+
+    private double[] vector = {0, 0, 1};
+    private BufferedImage background;
+
+    public BlochSpherePanel(int size) {
+        setPreferredSize(new Dimension(size, size));
+        setOpaque(true);
+        setBackground(Color.WHITE);
+    }
+
+    //EFFECTS: returns the Bloch vector shown, or null if there is none
+    public double[] getVector() {
+        return vector == null ? null : vector.clone();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: shows the given Bloch vector (x, y, z), redrawing only the arrow
+    public void setVector(double[] vector) {
+        this.vector = vector.clone();
+        repaint();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: stops showing a Bloch vector, leaving only the sphere
+    public void clearVector() {
+        vector = null;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (background == null || background.getWidth() != getWidth() || background.getHeight() != getHeight()) {
+            background = drawBackground(getWidth(), getHeight());
+        }
+        g.drawImage(background, 0, 0, null);
+        if (vector == null) {
+            return;
+        }
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Point centre = centre();
+        Point tip = project(vector[0], vector[1], vector[2]);
+        g2d.setColor(ARROW);
+        g2d.setStroke(new BasicStroke(3));
+        g2d.drawLine(centre.x, centre.y, tip.x, tip.y);
+        g2d.fillOval(tip.x - 5, tip.y - 5, 10, 10);
+        g2d.dispose();
+    }
+
+    //EFFECTS: draws the sphere, its equator and its labelled axes into an image of the given size
+    private BufferedImage drawBackground(int width, int height) {
+        BufferedImage image = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, width, height);
+        Point centre = centre();
+        int radius = radius();
+        g2d.setColor(Color.GRAY);
+        g2d.draw(new Ellipse2D.Double(centre.x - radius, centre.y - radius, 2 * radius, 2 * radius));
+        g2d.draw(new Ellipse2D.Double(centre.x - radius, centre.y - radius * DEPTH, 2 * radius,
+                2 * radius * DEPTH));
+        g2d.setColor(Color.DARK_GRAY);
+        drawAxis(g2d, centre, project(1, 0, 0), "x");
+        drawAxis(g2d, centre, project(0, 1, 0), "y");
+        drawAxis(g2d, centre, project(0, 0, 1), "|0>");
+        drawAxis(g2d, centre, project(0, 0, -1), "|1>");
+        g2d.dispose();
+        return image;
+    }
+
+    //EFFECTS: draws an axis from the centre to its end, labelled just beyond the end
+    private static void drawAxis(Graphics2D g2d, Point centre, Point end, String label) {
+        g2d.drawLine(centre.x, centre.y, end.x, end.y);
+        int dx = Integer.signum(end.x - centre.x);
+        int dy = Integer.signum(end.y - centre.y);
+        g2d.drawString(label, end.x + 6 * dx - (dx < 0 ? 8 : 0), end.y + 14 * dy + (dy == 0 ? 4 : 0));
+    }
+
+    //EFFECTS: returns where the point (x, y, z) of the sphere is drawn; y points right, z up and x out of the screen,
+    //         seen from slightly above
+    private Point project(double x, double y, double z) {
+        Point centre = centre();
+        int radius = radius();
+        return new Point((int) Math.round(centre.x + radius * (y - x * DEPTH * 0.7)),
+                (int) Math.round(centre.y - radius * (z - x * DEPTH * 0.7)));
+    }
+
+    private Point centre() {
+        return new Point(getWidth() / 2, getHeight() / 2);
+    }
+
+    //EFFECTS: returns the radius of the sphere, leaving room for the labels
+    private int radius() {
+        return Math.max(1, Math.min(getWidth(), getHeight()) / 2 - 24);
+    }
+}
@@ -4,7 +4,6 @@ import model.Gate;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.IOException;
 
 public class GateGUI extends JFrame {
 
@@ -32,6 +31,19 @@ public class GateGUI extends JFrame {
         return gateTable;
     }
 
+    //MODIFIES: this
+    //EFFECTS: enables or disables every button that acts on the qubit
+    public void setButtonsEnabled(boolean enabled) {
+        for (Component button : buttArea.getComponents()) {
+            button.setEnabled(enabled);
+        }
+        updateButt.setEnabled(enabled);
+        transformButt.setEnabled(enabled);
+        measureButt.setEnabled(enabled);
+        measureInBasisButt.setEnabled(enabled);
+        measureEVButt.setEnabled(enabled);
+    }
+
     //MODIFIES: this
     //EFFECTS: creates a gate with initial values set to display a general Hermitian matrix
     private void createGate() {
@@ -91,25 +103,13 @@ public class GateGUI extends JFrame {
 
     private void createLoadButton() {
         JButton loadButt = new JButton("Load");
-        loadButt.addActionListener(e -> {
-            try {
-                this.qubitApp.loadQubit();
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Could not find file!");
-            }
-        });
+        loadButt.addActionListener(e -> this.qubitApp.loadQubit());
         buttArea.add(loadButt);
     }
 
     private void createSaveButton() {
         JButton saveButt = new JButton("Save");
-        saveButt.addActionListener(e -> {
-            try {
-                this.qubitApp.saveQubit();
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Could not save qubit!");
-            }
-        });
+        saveButt.addActionListener(e -> this.qubitApp.saveQubit());
         buttArea.add(saveButt);
     }
 
@@ -1,9 +1,12 @@
 package ui;
 
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.imageio.ImageIO;
 
@@ -11,36 +14,33 @@ import javax.imageio.ImageIO;
 //SOURCES: Code taken from https://www.codejava.net/java-se/graphics/how-to-resize-images-in-java
 public class ImageResizer {
 
-    public static void resize(String inputImagePath,
-                              String outputImagePath, int scaledWidth, int scaledHeight)
-            throws IOException {
-        // reads input image
-        File inputFile = new File(inputImagePath);
-        BufferedImage inputImage = ImageIO.read(inputFile);
-
-        // creates output image
-        BufferedImage outputImage = new BufferedImage(scaledWidth,
-                scaledHeight, inputImage.getType());
+    // scaled images already made, by path and scale, so each is only read and scaled once
+    private static final Map<String, BufferedImage> CACHE = new HashMap<>();
+
+    //EFFECTS: returns the image at the given path scaled by percent, reading and scaling it only the first time it is
+    //         asked for at that scale. the image is kept in memory, and never written to disk.
+    public static synchronized BufferedImage load(String inputImagePath, double percent) throws IOException {
+        String key = inputImagePath + "@" + percent;
+        BufferedImage scaled = CACHE.get(key);
+        if (scaled == null) {
+            BufferedImage inputImage = ImageIO.read(new File(inputImagePath));
+            if (inputImage == null) {
+                throw new IOException("Can't read the image " + inputImagePath);
+            }
+            scaled = scale(inputImage, (int) (inputImage.getWidth() * percent),
+                    (int) (inputImage.getHeight() * percent));
+            CACHE.put(key, scaled);
+        }
+        return scaled;
+    }
 
-        // scales the input image to the output image
+    //EFFECTS: returns a copy of the image scaled to the given size
+    public static BufferedImage scale(BufferedImage inputImage, int scaledWidth, int scaledHeight) {
+        BufferedImage outputImage = new BufferedImage(scaledWidth, scaledHeight, inputImage.getType());
         Graphics2D g2d = outputImage.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         g2d.drawImage(inputImage, 0, 0, scaledWidth, scaledHeight, null);
         g2d.dispose();
-
-        // extracts extension of output file
-        String formatName = outputImagePath.substring(outputImagePath
-                .lastIndexOf(".") + 1);
-
-        // writes to output file
-        ImageIO.write(outputImage, formatName, new File(outputImagePath));
-    }
-
-    public static void resize(String inputImagePath,
-                              String outputImagePath, double percent) throws IOException {
-        File inputFile = new File(inputImagePath);
-        BufferedImage inputImage = ImageIO.read(inputFile);
-        int scaledWidth = (int) (inputImage.getWidth() * percent);
-        int scaledHeight = (int) (inputImage.getHeight() * percent);
-        resize(inputImagePath, outputImagePath, scaledWidth, scaledHeight);
+        return outputImage;
     }
 }
@@ -1,15 +1,15 @@
 package ui;
 
-import com.google.gson.*;
 import exceptions.NoStateToRemoveException;
 import model.Complex;
 import model.Gate;
 import model.Qubit;
 import model.State;
+import persistence.QubitFile;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.*;
+import java.io.File;
 import java.text.DecimalFormat;
 
 // An app that simulates a qubit
@@ -26,6 +26,7 @@ public class QubitApp extends JFrame {
     private QubitGUI qubitArea;
     private GateGUI gateArea;
     private TextAreaGUI textArea;
+    private TaskRunner tasks;
 
     //EFFECTS: runs the qubit app
     public QubitApp() {
@@ -41,15 +42,25 @@ public class QubitApp extends JFrame {
         this.myQubit = myQubit;
     }
 
+    //MODIFIES: this
+    //EFFECTS: enables or disables the buttons that act on the qubit, while an action runs in the background
+    void setActionsEnabled(boolean enabled) {
+        if (gateArea != null) {
+            gateArea.setButtonsEnabled(enabled);
+        }
+    }
+
     // MODIFIES: this
-    // EFFECTS:  initializes graphics so that the qubit app will run in the gui
+    // EFFECTS:  initializes graphics so that the qubit app will run in the gui. the buttons are made before the first
+    //           qubit is loaded, so that they are disabled while it loads in the background.
     private void initializeGraphics() {
         setLayout(new GridBagLayout());
         setMinimumSize(new Dimension(WIDTH, HEIGHT));
+        tasks = new TaskRunner(this);
         qubitArea = new QubitGUI(this);
-        qubitArea.addNewQubit();
         gateArea = new GateGUI(this);
         textArea = new TextAreaGUI(this);
+        qubitArea.addNewQubit();
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setVisible(true);
@@ -57,13 +68,12 @@ public class QubitApp extends JFrame {
 
     //EFFECTS: lets a user choose which state they want to add, and then adds it to the qubit
     public void addState() {
+        if (myQubit == null) {
+            JOptionPane.showMessageDialog(this, "There is no qubit to add a state to!");
+            return;
+        }
         String s1 = JOptionPane.showInputDialog("Please input the first number in your qubit's initial state here:");
         String s2 = JOptionPane.showInputDialog("Please input the second number in your qubit's initial state here:");
-        int size = myQubit.getStates().size();
-        while (size > 0) {
-            qubitArea.getModel().removeColumn(size - 1);
-            size--;
-        }
         Complex comp1 = new Complex(s1);
         Complex comp2 = new Complex(s2);
         State newState = new State(comp1, comp2);
@@ -73,6 +83,10 @@ public class QubitApp extends JFrame {
 
     //EFFECTS: lets the user choose a state, and then removes it.
     public void remove() {
+        if (myQubit == null) {
+            JOptionPane.showMessageDialog(this, "There is no qubit to remove a state from!");
+            return;
+        }
         String s1 = JOptionPane.showInputDialog("Please input the first number in your qubit's initial state here:");
         String s2 = JOptionPane.showInputDialog("Please input the second number in your qubit's initial state here:");
         Complex comp1 = new Complex(s1);
@@ -80,7 +94,6 @@ public class QubitApp extends JFrame {
         State newState = new State(comp1, comp2);
         try {
             myQubit.removeState(newState);
-            qubitArea.getModel().setColumnCount(0);
             qubitArea.updateTable();
         } catch (NoStateToRemoveException e) {
             JOptionPane.showMessageDialog(this, "That state does not exist!");
@@ -88,47 +101,44 @@ public class QubitApp extends JFrame {
     }
 
     //MODIFIES: this
-    //EFFECTS: saves a qubit to a file
-    //SOURCES: code inspired from https://stackoverflow.com/questions/19459082/read-and-write-data-with-gson/19459884
-    public void saveQubit() throws IOException {
+    //EFFECTS: saves a qubit to a file in the background, as JSON if the file name ends in .json and in the binary
+    //         format otherwise. a file left half written by cancelling, or by any other failure, is deleted.
+    public void saveQubit() {
         String fname = JOptionPane.showInputDialog("What would you like your file to be called?",
                 JOptionPane.CANCEL_OPTION);
-        Gson gson = new Gson();
-        String output = gson.toJson(myQubit.getStates());
+        if (fname == null) {
+            return;
+        }
         File myFile = new File(QUBIT_FILE + fname);
-        //noinspection ResultOfMethodCallIgnored
-        myFile.createNewFile();
-        FileOutputStream fout = new FileOutputStream(myFile);
-        OutputStreamWriter myOutWriter = new OutputStreamWriter(fout);
-        myOutWriter.append(output);
-        myOutWriter.close();
-        fout.close();
-    }
-
-    // EFFECTS: loads a qubit from a file
-    // SOURCES: code inspired from https://howtodoinjava.com/gson/gson-jsonparser/
-    //          and https://stackoverflow.com/questions/19459082/read-and-write-data-with-gson/19459884
-    public void loadQubit() throws IOException {
+        Qubit toSave = myQubit;
+        tasks.run("Saving " + fname, "Could not save qubit!", listener -> {
+            try {
+                if (fname.endsWith(".json")) {
+                    QubitFile.saveJson(toSave, myFile, listener);
+                } else {
+                    QubitFile.save(toSave, myFile, listener);
+                }
+            } catch (Exception e) {
+                // cancelling may also interrupt a write, which closes the file with a ClosedByInterruptException
+                //noinspection ResultOfMethodCallIgnored
+                myFile.delete();
+                throw e;
+            }
+            return myFile;
+        }, file -> { });
+    }
+
+    // EFFECTS: loads a qubit from a file in the background, saved in either the binary or the JSON format
+    public void loadQubit() {
         String fname = JOptionPane.showInputDialog("Which file would you like to open?", JOptionPane.CANCEL_OPTION);
-        File myFile = new File(QUBIT_FILE + fname);
-        FileInputStream fileIn = new FileInputStream(myFile);
-        BufferedReader myReader = new BufferedReader(new InputStreamReader(fileIn));
-        Gson gson = new Gson();
-        JsonArray json = gson.fromJson(myReader, JsonArray.class);
-        myQubit = new Qubit();
-        for (JsonElement jo : json) {
-            JsonObject firstNum = (JsonObject) ((JsonObject) jo).get("firstNumber");
-            JsonObject secondNum = (JsonObject) ((JsonObject) jo).get("secondNumber");
-            double re1 = firstNum.get("re").getAsDouble();
-            double re2 = secondNum.get("re").getAsDouble();
-            double im1 = firstNum.get("im").getAsDouble();
-            double im2 = secondNum.get("im").getAsDouble();
-            Complex comp1 = new Complex(re1, im1);
-            Complex comp2 = new Complex(re2, im2);
-            State state = new State(comp1, comp2);
-            myQubit.addState(state);
+        if (fname == null) {
+            return;
         }
-        qubitArea.generateQubitArea();
+        File myFile = new File(QUBIT_FILE + fname);
+        tasks.run("Loading " + fname, "Could not find file!", listener -> QubitFile.load(myFile, listener), loaded -> {
+            myQubit = loaded;
+            qubitArea.generateQubitArea();
+        });
     }
 
     //MODIFIES: this
@@ -157,21 +167,30 @@ public class QubitApp extends JFrame {
         }
     }
 
-    //EFFECTS: lets a user choose a gate in order to transform a qubit, and shows them the states afterwards
+    //EFFECTS: transforms the qubit with the current gate in the background, and shows the states afterwards. the
+    //         transform is done on a copy, so cancelling it leaves the qubit as it was.
     void transformQubit() {
-        myQubit.transform(currGate);
-        int size = myQubit.getStates().size();
-        while (size > 0) {
-            qubitArea.getModel().removeColumn(size - 1);
-            size--;
-        }
-        qubitArea.updateTable();
+        Qubit source = myQubit;
+        Gate gate = currGate;
+        tasks.run("Transforming", "Could not transform qubit!", listener -> {
+            Qubit transformed = new Qubit(source);
+            transformed.transform(gate);
+            return transformed;
+        }, transformed -> {
+            myQubit = transformed;
+            qubitArea.updateTable();
+        });
     }
 
-    //EFFECTS: measures a qubit and returns a random state
+    //EFFECTS: measures a qubit in the background, then shows the random state it collapsed into
     void measureQubit() {
-        Qubit luckyQubit = myQubit.measure();
-        State luckyState = luckyQubit.getStates().get(0);
+        tasks.run("Measuring", "Could not measure qubit!", listener -> myQubit.measure(), this::showMeasurement);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: shows the state the qubit was measured in and collapses the qubit into it
+    private void showMeasurement(Qubit luckyQubit) {
+        State luckyState = luckyQubit.getState(0);
         double x1 = luckyState.getFirstNumber().getX();
         double y1 = luckyState.getFirstNumber().getY();
         double x2 = luckyState.getSecondNumber().getX();
@@ -183,11 +202,6 @@ public class QubitApp extends JFrame {
                 + df.format(x2 * myQubit.getScaleFactor()) + " + "
                 + df.format(y2 * myQubit.getScaleFactor()) + "i ), which had a"
                 + " probability of " + df.format(prob * 100) + "%!");
-        int size = myQubit.getStates().size();
-        while (size > 0) {
-            qubitArea.getModel().removeColumn(size - 1);
-            size--;
-        }
         myQubit = luckyQubit;
         qubitArea.updateTable();
     }
@@ -199,21 +213,20 @@ public class QubitApp extends JFrame {
         int input = JOptionPane.showOptionDialog(this, "Would you "
                 + "like to measure in the positive or negative direction?", "Positive/Negative Direction",
                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, buttons, buttons[0]);
-        boolean isPositive = false;
-        if (input == 0) {
-            isPositive = true;
-        }
-        double prob = myQubit.measureProbability(currGate, isPositive);
-        textArea.setResults("Measurement Results: The probability that you measure "
-                + (int) (currGate.getEigenValue(isPositive))
-                + " is: " + df.format(prob * 100) + "%.");
+        boolean isPositive = input == 0;
+        Gate gate = currGate;
+        tasks.run("Measuring", "Could not measure qubit!", listener -> myQubit.measureProbability(gate, isPositive),
+                prob -> textArea.setResults("Measurement Results: The probability that you measure "
+                        + (int) (gate.getEigenValue(isPositive))
+                        + " is: " + df.format(prob * 100) + "%."));
     }
 
-    //EFFECTS: lets a user choose a gate, then outputs the expectation value
+    //EFFECTS: works out the expectation value of the current gate in the background, then outputs it
     public void expectationValue() {
-        double prob = myQubit.measureExpectationValue(currGate);
-        textArea.setResults("Measurement Results: The average value you would measure with this gate is: "
-                + df.format(prob));
+        Gate gate = currGate;
+        tasks.run("Measuring", "Could not measure qubit!", listener -> myQubit.measureExpectationValue(gate),
+                prob -> textArea.setResults("Measurement Results: The average value you would measure with this "
+                        + "gate is: " + df.format(prob)));
     }
 
     public static void main(String[] args) {
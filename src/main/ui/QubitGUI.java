@@ -4,11 +4,9 @@ import model.Complex;
 import model.Qubit;
 import model.State;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 
 import static ui.QubitApp.QUBIT_FILE;
@@ -17,15 +15,17 @@ public class QubitGUI extends JFrame {
 
     private QubitApp qubitApp;
     private JPanel qubitArea;
-    private MyTableModel model;
+    private QubitTableModel model;
+    private BlochSpherePanel blochSphere;
 
     public QubitGUI(QubitApp qubitApp) {
         super("QubitArea");
         this.qubitApp = qubitApp;
-        this.model = new MyTableModel();
+        this.model = new QubitTableModel();
+        this.blochSphere = new BlochSpherePanel(200);
     }
 
-    public MyTableModel getModel() {
+    public QubitTableModel getModel() {
         return model;
     }
 
@@ -40,11 +40,7 @@ public class QubitGUI extends JFrame {
                 "Would you like to load a previously saved qubit?", "Load file",
                 JOptionPane.YES_NO_OPTION);
         if (reply == JOptionPane.YES_OPTION) {
-            try {
-                qubitApp.loadQubit();
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(qubitApp, "Could not find file!");
-            }
+            qubitApp.loadQubit();
         } else {
             String s1 =
                     JOptionPane.showInputDialog("Please input the first number in your qubit's initial state here:");
@@ -97,41 +93,31 @@ public class QubitGUI extends JFrame {
         qubitApp.validate();
     }
 
-    //EFFECTS: updates the state table
+    //EFFECTS: updates the state table and the Bloch vector to show the app's current qubit; a qubit with no states
+    //         has no Bloch vector, so none is shown
     void updateTable() {
-        int size = qubitApp.getMyQubit().getStates().size();
-        String[][] data = new String[2][size];
-        String[] names = new String[size];
-        int i = 0;
-        double scaleFactor = qubitApp.getMyQubit().getScaleFactor();
-        for (State state : qubitApp.getMyQubit()) {
-            data[0][i] = state.getFirstNumber().multiplyByConstant(scaleFactor).toString();
-            data[1][i] = state.getSecondNumber().multiplyByConstant(scaleFactor).toString();
-            int ind = i +  1;
-            names[i] = "State " + ind;
-            model.addColumn(names[i], new String[]{data[0][i], data[1][i]});
-            i++;
+        model.setQubit(qubitApp.getMyQubit());
+        if (qubitApp.getMyQubit().size() > 0) {
+            blochSphere.setVector(qubitApp.getMyQubit().getBlochVector());
+        } else {
+            blochSphere.clearVector();
         }
     }
 
     //MODIFIES: this
-    //EFFECTS: places an image of a bloch sphere in the qubit app
+    //EFFECTS: places an image of a bloch sphere in the qubit app, next to a drawing of the qubit's Bloch vector.
+    //         the image is scaled once and then kept in memory.
     //SOURCES: The image used was found here: https://computer.howstuffworks.com/quantum-computer1.htm
     private void initializeBlochSphere() {
         GridBagConstraints c = new GridBagConstraints();
         JPanel panel = new JPanel();
-        BufferedImage myPicture = null;
         try {
-            ImageResizer.resize(QUBIT_FILE + "bloch-sphere.jpg",
-                    QUBIT_FILE + "resized-bloch-sphere.jpg", 0.55);
-            myPicture = ImageIO.read(new File(QUBIT_FILE + "resized-bloch-sphere.jpg"));
+            BufferedImage myPicture = ImageResizer.load(QUBIT_FILE + "bloch-sphere.jpg", 0.55);
+            panel.add(new JLabel(new ImageIcon(myPicture)));
         } catch (IOException e) {
             JOptionPane.showMessageDialog(qubitApp, "Something went wrong loading the image!");
         }
-        assert myPicture != null;
-        panel.setSize(myPicture.getWidth(), myPicture.getHeight());
-        JLabel picLabel = new JLabel(new ImageIcon(myPicture));
-        panel.add(picLabel);
+        panel.add(blochSphere);
         c.gridx = 0;
         c.gridy = 0;
         c.gridheight = 1;
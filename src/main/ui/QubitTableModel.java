@@ -0,0 +1,54 @@
+package ui;
+
+import model.ComplexString;
+import model.Qubit;
+
+import javax.swing.table.AbstractTableModel;
+
+// a table model showing the states of a qubit, one column per state and one row per number. the cells are read
+// straight from the qubit and only formatted when the table draws them, so a qubit with many states costs no more
+// to show than the columns that fit on the screen.
+public class QubitTableModel extends AbstractTableModel {
+
+    private Qubit qubit;
+
+    //EFFECTS: constructs a model showing no qubit
+    public QubitTableModel() {
+        this.qubit = null;
+    }
+
+    public Qubit getQubit() {
+        return qubit;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: shows the given qubit, replacing whatever was shown with a single change of the table's structure
+    public void setQubit(Qubit qubit) {
+        this.qubit = qubit;
+        fireTableStructureChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return 2;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return qubit == null ? 0 : qubit.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return "State " + (column + 1);
+    }
+
+    //EFFECTS: returns the first number of the state in the given column if row is 0, the second otherwise,
+    //         normalized and formatted
+    @Override
+    public Object getValueAt(int row, int column) {
+        double scale = qubit.getScaleFactor();
+        return ComplexString.format(qubit.getPart(column, 2 * row) * scale,
+                qubit.getPart(column, 2 * row + 1) * scale);
+    }
+}
@@ -0,0 +1,174 @@
+package ui;
+
+import persistence.ProgressListener;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+// runs the slow actions of the app on a background thread, one at a time, so the window keeps responding while they
+// run. a status bar shows what is running and how far it has got, with a button to cancel it. the app's buttons are
+// disabled until the action is done, and its result is handed back on the event dispatch thread.
+public class TaskRunner {
+
+    private final QubitApp qubitApp;
+    private JLabel statusLabel;
+    private JProgressBar progressBar;
+    private JButton cancelButt;
+    private SwingWorker<?, long[]> current;
+
+    // the part of an action that runs in the background, told to report its progress to the listener
+    public interface Work<T> {
+        T run(ProgressListener listener) throws Exception;
+    }
+
+    // the part of an action that uses its result, run on the event dispatch thread
+    public interface Done<T> {
+        void accept(T result);
+    }
+
+    public TaskRunner(QubitApp qubitApp) {
+        this.qubitApp = qubitApp;
+        createStatusBar();
+    }
+
+    //EFFECTS: returns true if an action is running
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    //REQUIRES: called on the event dispatch thread
+    //MODIFIES: this
+    //EFFECTS: runs the work in the background, then gives its result to done. if the work fails, shows the failure
+    //         message instead. does nothing if another action is still running.
+    public <T> void run(String description, String failureMessage, Work<T> work, Done<T> done) {
+        if (current != null) {
+            return;
+        }
+        current = new Task<>(failureMessage, work, done);
+        statusLabel.setText(description + "...");
+        progressBar.setIndeterminate(true);
+        cancelButt.setEnabled(true);
+        qubitApp.setActionsEnabled(false);
+        current.execute();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: cancels the running action, if any; its result is thrown away
+    public void cancel() {
+        if (current != null) {
+            current.cancel(true);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: creates the status bar at the bottom of the app
+    private void createStatusBar() {
+        JPanel statusBar = new JPanel(new BorderLayout(10, 0));
+        statusLabel = new JLabel("Ready");
+        progressBar = new JProgressBar(0, 100);
+        cancelButt = new JButton("Cancel");
+        cancelButt.setEnabled(false);
+        cancelButt.addActionListener(e -> cancel());
+        statusBar.add(statusLabel, BorderLayout.WEST);
+        statusBar.add(progressBar, BorderLayout.CENTER);
+        statusBar.add(cancelButt, BorderLayout.EAST);
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = 0;
+        c.gridy = 2;
+        c.gridwidth = 2;
+        c.weightx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        qubitApp.add(statusBar, c);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: puts the status bar and the app's buttons back once an action is over
+    private void finish(String status) {
+        current = null;
+        statusLabel.setText(status);
+        progressBar.setIndeterminate(false);
+        progressBar.setValue(0);
+        cancelButt.setEnabled(false);
+        qubitApp.setActionsEnabled(true);
+    }
+
+    // an action running in the background. progress is published as (done, total) pairs, and Swing hands all the
+    // pairs published since the last update to process at once, where only the latest is shown. a cancelled action
+    // is told it is done straight away, but its work may still be running, so it is only over once the work returns.
+    private class Task<T> extends SwingWorker<T, long[]> {
+        private final String failureMessage;
+        private final Work<T> work;
+        private final Done<T> done;
+        private boolean returned;
+
+        Task(String failureMessage, Work<T> work, Done<T> done) {
+            this.failureMessage = failureMessage;
+            this.work = work;
+            this.done = done;
+        }
+
+        //EFFECTS: runs the work, stopping it with a CancellationException at its next report of progress once the
+        //         action has been cancelled
+        @Override
+        protected T doInBackground() throws Exception {
+            try {
+                return work.run((progress, total) -> {
+                    if (isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    publish(new long[] {progress, total});
+                });
+            } finally {
+                SwingUtilities.invokeLater(this::workReturned);
+            }
+        }
+
+        @Override
+        protected void process(List<long[]> chunks) {
+            long[] latest = chunks.get(chunks.size() - 1);
+            if (latest[1] > 0) {
+                progressBar.setIndeterminate(false);
+                progressBar.setValue((int) (100 * latest[0] / latest[1]));
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                statusLabel.setText("Cancelling...");
+                cancelButt.setEnabled(false);
+                finishCancelled();
+                return;
+            }
+            try {
+                T result = get();
+                finish("Ready");
+                done.accept(result);
+            } catch (InterruptedException | ExecutionException e) {
+                finish("Failed");
+                JOptionPane.showMessageDialog(qubitApp, failureMessage);
+            }
+        }
+
+        //REQUIRES: called on the event dispatch thread
+        //MODIFIES: this
+        //EFFECTS: notes that the work has returned, and ends the action if it was cancelled
+        private void workReturned() {
+            returned = true;
+            finishCancelled();
+        }
+
+        //REQUIRES: called on the event dispatch thread
+        //MODIFIES: this
+        //EFFECTS: puts the app back once this action has been cancelled and its work has returned, whichever of the
+        //         two is noticed last; the app's buttons stay disabled until then
+        private void finishCancelled() {
+            if (returned && isCancelled() && current == this) {
+                finish("Cancelled");
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package batch;
+
+import exceptions.InvalidJobException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+
+    @Test
+    public void testRunManyJobs() throws IOException, InvalidJobException {
+        StringBuilder jobs = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            jobs.append("job j").append(i).append("\nstate 1 0 0 0\nload ./data/Saved.json\ngate 0 1 0\n")
+                    .append("expectation 1 0 0\n");
+        }
+        StringWriter written = new StringWriter();
+        BatchRunner runner = new BatchRunner();
+        assertEquals(50, runner.run(new StringReader(jobs.toString()), new PrintWriter(written)));
+        assertEquals(50, runner.getJobCount());
+        assertTrue(runner.getJobsPerSecond() > 0);
+        String[] lines = written.toString().split("\\R");
+        assertEquals(50, lines.length);
+        assertTrue(lines[49].startsWith("j49\texpectation 1 0 0\t"));
+    }
+
+    @Test
+    public void testRunStopsAtInvalidJob() throws IOException {
+        StringWriter written = new StringWriter();
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.run(new StringReader("state 1 0 0 0\nexpectation 1 0 0\njob bad\nmeasure\n"),
+                    new PrintWriter(written));
+            fail("Did not catch exception!");
+        } catch (InvalidJobException e) {
+            // all good!
+        }
+        assertEquals(1, runner.getJobCount());
+        assertEquals(1, written.toString().split("\\R").length);
+    }
+}
@@ -0,0 +1,97 @@
+package batch;
+
+import exceptions.InvalidJobException;
+import model.Complex;
+import model.State;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobParserTest {
+
+    @Test
+    public void testParseJobs() throws IOException, InvalidJobException {
+        JobParser parser = new JobParser(new StringReader("# two jobs\n"
+                + "state 1 0 0 0\n"
+                + "gate 1 1 0\n"
+                + "probability 0 0 1 -\n"
+                + "\n"
+                + "job second\n"
+                + "seed 210\n"
+                + "state 1 0 1 0\n"
+                + "state 0 1 0 -1\n"
+                + "measure\n"
+                + "measure 100\n"
+                + "end\n"));
+        Job first = parser.next();
+        assertEquals("job1", first.getName());
+        assertEquals(1, first.getQubit().size());
+        assertEquals(2, first.getCircuit().getPendingCount());
+        assertEquals(1, first.getOutputCount());
+        Job second = parser.next();
+        assertEquals("second", second.getName());
+        assertEquals(new State(new Complex(0, 1), new Complex(0, -1)), second.getQubit().getState(1));
+        assertEquals(2, second.getOutputCount());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void testRunJob() throws IOException, InvalidJobException {
+        JobParser parser = new JobParser(new StringReader("job h\nstate 1 0 0 0\ngate 1 1 0\n"
+                + "probability 1 0 0\nexpectation 0 1 0\n"));
+        StringWriter written = new StringWriter();
+        parser.next().run(new PrintWriter(written, true));
+        String[] lines = written.toString().split("\\R");
+        assertEquals(2, lines.length);
+        String[] probability = lines[0].split("\t");
+        assertEquals("h", probability[0]);
+        assertEquals("probability 1 0 0", probability[1]);
+        assertEquals(0.5, Double.parseDouble(probability[2]), 0.001);
+        assertEquals(1, Double.parseDouble(lines[1].split("\t")[2]), 0.001);
+    }
+
+    @Test
+    public void testSeededJobsRepeat() throws IOException, InvalidJobException {
+        String jobs = "seed 7\nstate 1 0 1 0\nstate 0 1 2 0\nstate 3 0 0 1\nmeasure\nmeasure 1000\n";
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        new JobParser(new StringReader(jobs)).next().run(new PrintWriter(first, true));
+        new JobParser(new StringReader(jobs)).next().run(new PrintWriter(second, true));
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    public void testInvalidJobs() throws IOException {
+        String[] invalid = {
+                "gate 1 0 0\n",
+                "state 1 0 0\n",
+                "state 1 0 0 x\n",
+                "state 1 0 0 0\nmeasure 0\n",
+                "state 1 0 0 0\ngate 1 0 0\nstate 1 0 0 0\n",
+                "state 1 0 0 0\nrotate 1\n",
+                "state 1 0 0 0\nprobability 1 0 0 x\n"};
+        for (String jobs : invalid) {
+            try {
+                new JobParser(new StringReader(jobs)).next();
+                fail("Did not catch exception!");
+            } catch (InvalidJobException e) {
+                // all good!
+            }
+        }
+    }
+
+    @Test
+    public void testBadSign() throws IOException {
+        try {
+            new JobParser(new StringReader("state 1 0 0 0\n\nprobability 1 0 0 plus\n")).next();
+            fail("Did not catch exception!");
+        } catch (InvalidJobException e) {
+            assertTrue(e.getMessage().startsWith("line 3: plus"));
+        }
+    }
+}
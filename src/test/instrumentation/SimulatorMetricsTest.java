@@ -0,0 +1,115 @@
+package instrumentation;
+
+import exceptions.NoStateToRemoveException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.Complex;
+import model.Gate;
+import model.Qubit;
+import model.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.QubitFile;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorMetricsTest {
+
+    private SimulatorMetrics metrics;
+    private Qubit qubit;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = SimulatorMetrics.get();
+        qubit = new Qubit(new State(new Complex(1, 0), new Complex(0, 1)));
+        qubit.addState(new State(new Complex(1, 1), new Complex(3, 4)));
+    }
+
+    @Test
+    public void testCounters() throws IOException, NoStateToRemoveException {
+        long gates = metrics.getGatesApplied();
+        long shots = metrics.getShotsSampled();
+        long states = metrics.getStatesStored();
+        long saved = metrics.getBytesSaved();
+        long loaded = metrics.getBytesLoaded();
+        qubit.transform(new Gate(0.3, -0.5, 0.8));
+        qubit.measure(100);
+        qubit.measure(50, 210);
+        qubit.addState(new State(new Complex(0, 1), new Complex(1, 0)));
+        new Qubit(qubit);
+        File file = Files.createTempFile("qubit", ".bin").toFile();
+        try {
+            QubitFile.save(qubit, file);
+            QubitFile.load(file);
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+        assertEquals(gates + 1, metrics.getGatesApplied());
+        assertEquals(shots + 150, metrics.getShotsSampled());
+        assertEquals(states + 1 + 3, metrics.getStatesStored());
+        qubit.removeState(new State(new Complex(0, 1), new Complex(1, 0)));
+        assertEquals(states + 3, metrics.getStatesStored());
+        assertEquals(saved + 16 + 3 * 32, metrics.getBytesSaved());
+        assertEquals(loaded + 16 + 3 * 32, metrics.getBytesLoaded());
+        assertTrue(metrics.getSaveBytesPerSecond() > 0);
+        assertTrue(metrics.getLoadBytesPerSecond() > 0);
+    }
+
+    @Test
+    public void testPublishedOverJmx() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(SimulatorMetrics.OBJECT_NAME);
+        assertTrue(SimulatorMetrics.publish());
+        assertTrue(SimulatorMetrics.publish());
+        assertTrue(server.isRegistered(name));
+        new Gate(1, 1, 0).getEigenValue(true);
+        assertEquals(metrics.getEigenComputations(), server.getAttribute(name, "EigenComputations"));
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws IOException {
+        Path path = Files.createTempFile("qubit", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(GateEvent.class);
+            recording.enable(MeasurementEvent.class);
+            recording.enable(EigenEvent.class);
+            recording.start();
+            qubit.transform(new Gate(0, 1, 0));
+            qubit.measure(10);
+            new Gate(0.2, 0.4, 0.6).getEigenState(true);
+            recording.stop();
+            recording.dump(path);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(path);
+            RecordedEvent gate = find(events, "qubitsimulator.Gate");
+            assertEquals(1, gate.getInt("gates"));
+            assertEquals(2, gate.getLong("states"));
+            assertEquals(10, find(events, "qubitsimulator.Measurement").getLong("shots"));
+            assertNotNull(find(events, "qubitsimulator.Eigen"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    //EFFECTS: returns the first event of the given type, failing if there is none
+    private static RecordedEvent find(List<RecordedEvent> events, String type) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(type)) {
+                return event;
+            }
+        }
+        fail("No " + type + " event");
+        return null;
+    }
+}
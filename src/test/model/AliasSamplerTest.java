@@ -0,0 +1,42 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AliasSamplerTest {
+
+    @Test
+    public void testSingleWeight() {
+        AliasSampler sampler = new AliasSampler(new double[] {0.3});
+        assertEquals(1, sampler.size());
+        assertEquals(0, sampler.sample(0));
+        assertEquals(0, sampler.sample(0.999));
+    }
+
+    @Test
+    public void testZeroWeightNeverPicked() {
+        AliasSampler sampler = new AliasSampler(new double[] {0, 1, 0, 3});
+        for (double u = 0; u < 1; u += 0.001) {
+            int pick = sampler.sample(u);
+            assertEquals(1, pick % 2);
+        }
+    }
+
+    @Test
+    public void testDistribution() {
+        double[] weights = {1, 2, 3, 4, 0.01};
+        AliasSampler sampler = new AliasSampler(weights);
+        int[] counts = new int[weights.length];
+        Random random = new Random(210);
+        int shots = 1000000;
+        for (int i = 0; i < shots; i++) {
+            counts[sampler.sample(random.nextDouble())]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / 10.01, counts[i] / (double) shots, 0.002);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AmplitudeMapTest {
+
+    @Test
+    public void testPutAndFind() {
+        AmplitudeMap map = new AmplitudeMap(1);
+        assertEquals(0, map.size());
+        assertEquals(-1, map.find(5));
+        map.put(5, 1, 2);
+        map.put(1L << 40, 3, 4);
+        map.put(5, -1, -2);
+        assertEquals(2, map.size());
+        int slot = map.find(5);
+        assertEquals(5, map.keyAt(slot));
+        assertEquals(-1, map.reAt(slot));
+        assertEquals(-2, map.imAt(slot));
+        assertEquals(1 + 4 + 9 + 16, map.normSquared(), 0.000001);
+        map.scale(2);
+        assertEquals(6, map.reAt(map.find(1L << 40)));
+    }
+
+    @Test
+    public void testRemove() {
+        AmplitudeMap map = new AmplitudeMap(1);
+        map.put(7, 1, 0);
+        assertFalse(map.remove(8));
+        assertTrue(map.remove(7));
+        assertFalse(map.remove(7));
+        assertEquals(0, map.size());
+        assertEquals(-1, map.find(7));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        // many keys in a small map, so entries collide, grow the map and are shifted back when others are removed
+        AmplitudeMap map = new AmplitudeMap(1);
+        Map<Long, Double> expected = new HashMap<>();
+        Random random = new Random(25);
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(500);
+            if (random.nextBoolean()) {
+                map.put(key, i, -i);
+                expected.put(key, (double) i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 500; key++) {
+            int slot = map.find(key);
+            if (expected.containsKey(key)) {
+                assertEquals(expected.get(key), map.reAt(slot));
+                assertEquals(-expected.get(key), map.imAt(slot));
+            } else {
+                assertEquals(-1, slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitTest {
+
+    private Qubit qubit;
+    private Circuit circuit;
+
+    private Gate pauliX;
+    private Gate pauliZ;
+    private Gate hadamard;
+
+    @BeforeEach
+    public void setUp() {
+        qubit = new Qubit(new State(new Complex(1, 0), new Complex(0, 0)));
+        circuit = new Circuit(qubit);
+        pauliX = new Gate(0, 1, 0);
+        pauliZ = new Gate(1, 0, 0);
+        hadamard = new Gate(1, 1, 0);
+    }
+
+    @Test
+    public void testTransformIsDeferred() {
+        circuit.transform(pauliX);
+        assertEquals(1, circuit.getPendingCount());
+        assertEquals(new Complex(1, 0), qubit.getState(0).getFirstNumber());
+        Qubit result = circuit.getQubit();
+        assertEquals(0, circuit.getPendingCount());
+        assertEquals(new Complex(0, 0), result.getState(0).getFirstNumber());
+        assertEquals(new Complex(1, 0), result.getState(0).getSecondNumber());
+    }
+
+    @Test
+    public void testResultRunsCircuit() {
+        circuit.transform(hadamard);
+        Circuit.Result<Double> before = circuit.measureProbability(pauliZ, true);
+        circuit.transform(hadamard);
+        Circuit.Result<Double> after = circuit.measureExpectationValue(pauliZ);
+        assertEquals(4, circuit.getPendingCount());
+        assertEquals(0.5, before.get(), 0.001);
+        assertEquals(0, circuit.getPendingCount());
+        assertEquals(1, after.get(), 0.001);
+    }
+
+    @Test
+    public void testMeasureCollapses() {
+        circuit.transform(hadamard);
+        Circuit.Result<Qubit> measured = circuit.measure();
+        circuit.transform(pauliX);
+        Qubit result = circuit.getQubit();
+        assertEquals(1, measured.get().size());
+        assertEquals(1, result.size());
+        assertEquals(1, result.measureProbability(pauliZ, true) + result.measureProbability(pauliZ, false),
+                0.001);
+    }
+
+    @Test
+    public void testSimplify() {
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        List<Gate> gates = new ArrayList<>();
+        gates.add(hadamard);
+        gates.add(gate);
+        gates.add(pauliX);
+        gates.add(pauliX);
+        gates.add(gate);
+        gates.add(pauliZ);
+        List<Gate> simplified = Circuit.simplify(gates);
+        assertEquals(2, simplified.size());
+        assertEquals(hadamard, simplified.get(0));
+        assertEquals(pauliZ, simplified.get(1));
+    }
+
+    @Test
+    public void testSimplifyKeepsNearInverses() {
+        Gate nearPauliX = new Gate(0.0005, 1, 0);
+        assertTrue(pauliX.compose(nearPauliX).isIdentity());
+        List<Gate> gates = new ArrayList<>();
+        gates.add(pauliX);
+        gates.add(nearPauliX);
+        assertEquals(2, Circuit.simplify(gates).size());
+        gates.add(nearPauliX);
+        assertEquals(1, Circuit.simplify(gates).size());
+        assertEquals(pauliX, Circuit.simplify(gates).get(0));
+    }
+
+    @Test
+    public void testCancelledGatesLeaveQubit() {
+        qubit.addState(new State(new Complex(1, 1), new Complex(3, 4)));
+        double probability = qubit.measureProbability(hadamard, true);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        circuit.transform(gate);
+        circuit.transform(hadamard);
+        circuit.transform(hadamard);
+        circuit.transform(gate);
+        assertEquals(probability, circuit.measureProbability(hadamard, true).get(), 0.000001);
+    }
+}
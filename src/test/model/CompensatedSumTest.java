@@ -0,0 +1,29 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CompensatedSumTest {
+
+    @Test
+    public void testAddAndTakeAway() {
+        CompensatedSum sum = new CompensatedSum();
+        assertEquals(0, sum.getValue());
+        sum.add(1e16);
+        for (int i = 0; i < 1000; i++) {
+            sum.add(1);
+        }
+        sum.add(-1e16);
+        assertEquals(1000, sum.getValue());
+    }
+
+    @Test
+    public void testReset() {
+        CompensatedSum sum = new CompensatedSum();
+        sum.add(0.1);
+        sum.add(0.2);
+        sum.reset(5);
+        assertEquals(5, sum.getValue());
+    }
+}
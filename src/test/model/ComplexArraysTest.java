@@ -0,0 +1,42 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ComplexArraysTest {
+
+    @Test
+    public void testNormSquared() {
+        double[] data = {1, 2, 3, 4, 5, 6};
+        assertEquals(91, ComplexArrays.normSquared(data, 0, 3), 0.001);
+        assertEquals(25, ComplexArrays.normSquared(data, 1, 2), 0.001);
+        assertEquals(0, ComplexArrays.normSquared(data, 2, 2), 0.001);
+    }
+
+    @Test
+    public void testScale() {
+        double[] data = {1, 2, 3, 4};
+        ComplexArrays.scale(data, 1, 2, 2);
+        assertArrayEquals(new double[] {1, 2, 6, 8}, data, 0.001);
+    }
+
+    @Test
+    public void testApplyPairsInRanges() {
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        double[] matrix = gate.toArray(1);
+        double[] whole = new double[32];
+        for (int i = 0; i < whole.length; i++) {
+            whole[i] = i % 7 - 3;
+        }
+        double[] split = whole.clone();
+        ComplexArrays.applyPairs(whole, 0, 8, 4, matrix);
+        ComplexArrays.applyPairs(split, 0, 3, 4, matrix);
+        ComplexArrays.applyPairs(split, 3, 8, 4, matrix);
+        assertArrayEquals(whole, split, 0.000001);
+        State state = new State(new Complex(whole[2], whole[3]), new Complex(whole[10], whole[11]));
+        State before = new State(new Complex(-1, 0), new Complex(0, 1));
+        assertEquals(gate.multiply(before), state);
+    }
+}
@@ -124,6 +124,8 @@ public class ComplexTest {
         assertEquals(comp6.toString(), "-1.00i");
         assertEquals(comp7.toString(), "-1.00 + -1.00i");
         assertEquals(comp1.toString(), "8.00 + 3.00i");
+        assertEquals("-1.00 + 0.50i", ComplexString.format(-1, 0.5));
+        assertEquals("0.33", ComplexString.format(1.0 / 3, 0.0001));
     }
 
 
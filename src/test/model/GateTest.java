@@ -3,7 +3,10 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class GateTest {
 
@@ -134,4 +137,47 @@ public class GateTest {
         State hstate = new State(hcomp1, hcomp2);
         assertEquals(hadamard.getEigenState(true), hstate);
     }
+
+    @Test
+    public void testCompose() {
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        Gate composed = hadamard.compose(gate);
+        assertEquals(gate.multiply(hadamard.multiply(state3)), composed.multiply(state3));
+        assertEquals(hadamard.getScale() * gate.getScale(), composed.getScale(), 0.000001);
+        Gate squared = pauliX.compose(pauliX);
+        assertEquals(identity.getTopLeft(), squared.getTopLeft());
+        assertEquals(identity.getTopRight(), squared.getTopRight());
+        assertEquals(identity.getBotLeft(), squared.getBotLeft());
+        assertEquals(identity.getBotRight(), squared.getBotRight());
+    }
+
+    @Test
+    public void testFuse() {
+        List<Gate> gates = new ArrayList<>();
+        gates.add(pauliY);
+        assertEquals(pauliY, Gate.fuse(gates));
+        gates.add(hadamard);
+        gates.add(pauliZ);
+        State expected = pauliZ.multiply(hadamard.multiply(pauliY.multiply(state3)));
+        assertEquals(expected, Gate.fuse(gates).multiply(state3));
+    }
+
+    @Test
+    public void testIsIdentity() {
+        assertTrue(identity.isIdentity());
+        assertFalse(pauliX.isIdentity());
+        assertTrue(hadamard.compose(hadamard).isIdentity());
+        assertFalse(hadamard.compose(pauliZ).isIdentity());
+        assertTrue(hadamard.compose(hadamard).isIdentity(1e-12));
+        assertFalse(pauliX.compose(new Gate(0.0005, 1, 0)).isIdentity(1e-12));
+        assertEquals(Math.sqrt(2), hadamard.norm(), 0.000001);
+    }
+
+    @Test
+    public void testEigenStateCached() {
+        State first = hadamard.getEigenState(true);
+        assertSame(first, hadamard.getEigenState(true));
+        assertEquals(hadamard.getEigenValue(false), hadamard.getEigenValue(false));
+        assertNotEquals(first, hadamard.getEigenState(false));
+    }
 }
@@ -0,0 +1,93 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedStateVectorTest {
+
+    private File directory;
+    private MappedStateVector register;
+
+    private Gate hadamard;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("scratch").toFile();
+        // chunks of 8 amplitudes, so gates on the upper qubits work across chunks
+        register = new MappedStateVector(6, 3, directory);
+        hadamard = new Gate(1, 1, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        register.close();
+        //noinspection ResultOfMethodCallIgnored
+        directory.delete();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(6, register.getNumQubits());
+        assertEquals(new Complex(1, 0), register.getAmplitude(0));
+        assertEquals(1, register.normSquared(), 0.001);
+        assertTrue(register.getFile().exists());
+        assertEquals(directory, register.getFile().getParentFile());
+        assertEquals(64 * 16, register.getFile().length());
+    }
+
+    @Test
+    public void testMatchesStateVector() {
+        StateVector expected = new StateVector(6);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        List<Gate> gates = new ArrayList<>();
+        int[] targets = {0, 5, 1, 2, 2, 4, 0, 3};
+        for (int target : targets) {
+            gates.add(target % 2 == 0 ? hadamard : gate);
+        }
+        register.apply(gates, targets);
+        expected.apply(gates, targets);
+        for (long i = 0; i < register.getDimension(); i++) {
+            assertEquals(expected.getAmplitude(i), register.getAmplitude(i));
+        }
+        Random random = new Random(210);
+        boolean one = register.measure(5, random);
+        assertEquals(one ? 1 : 0, register.probabilityOfOne(5), 0.001);
+        assertEquals(1, register.normSquared(), 0.001);
+    }
+
+    @Test
+    public void testCloseDeletesFile() {
+        File file = register.getFile();
+        register.close();
+        assertFalse(file.exists());
+        try {
+            register.normSquared();
+            fail("Did not catch exception!");
+        } catch (IllegalStateException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testConfiguredScratchDirectory() {
+        System.setProperty(MappedStateVector.SCRATCH_DIRECTORY_PROPERTY, directory.getPath());
+        System.setProperty(StorageMode.PROPERTY, "MAPPED");
+        try (Register configured = StorageMode.configured().create(2)) {
+            assertTrue(configured instanceof MappedStateVector);
+            assertEquals(directory, ((MappedStateVector) configured).getFile().getParentFile());
+        } finally {
+            System.clearProperty(MappedStateVector.SCRATCH_DIRECTORY_PROPERTY);
+            System.clearProperty(StorageMode.PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapStateVectorTest {
+
+    private OffHeapStateVector register;
+
+    private Gate pauliX;
+    private Gate hadamard;
+
+    @BeforeEach
+    public void setUp() {
+        // chunks of 4 amplitudes, so gates on the upper qubits work across chunks
+        register = new OffHeapStateVector(5, 2);
+        pauliX = new Gate(0, 1, 0);
+        hadamard = new Gate(1, 1, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        register.close();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(5, register.getNumQubits());
+        assertEquals(32, register.getDimension());
+        assertEquals(new Complex(1, 0), register.getAmplitude(0));
+        assertEquals(1, register.normSquared(), 0.001);
+        try {
+            new OffHeapStateVector(BufferStateVector.MAX_QUBITS + 1);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testMatchesStateVector() {
+        StateVector expected = new StateVector(5);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        int[] targets = {0, 4, 2, 3, 1, 4, 0};
+        for (int target : targets) {
+            register.apply(hadamard, target);
+            expected.apply(hadamard, target);
+            register.apply(gate, 4 - target);
+            expected.apply(gate, 4 - target);
+        }
+        for (long i = 0; i < register.getDimension(); i++) {
+            assertEquals(expected.getAmplitude(i), register.getAmplitude(i));
+        }
+        for (int target = 0; target < 5; target++) {
+            assertEquals(expected.probabilityOfOne(target), register.probabilityOfOne(target), 0.000001);
+        }
+    }
+
+    @Test
+    public void testApplySequenceMatchesStateVector() {
+        StateVector expected = new StateVector(5);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        List<Gate> gates = new ArrayList<>();
+        int[] targets = {0, 1, 1, 3, 0, 4, 1, 0};
+        for (int target : targets) {
+            gates.add(target % 2 == 0 ? hadamard : gate);
+        }
+        register.apply(gates, targets);
+        expected.apply(gates, targets);
+        for (long i = 0; i < register.getDimension(); i++) {
+            assertEquals(expected.getAmplitude(i), register.getAmplitude(i));
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        OffHeapStateVector sequential = new OffHeapStateVector(14, 6);
+        try (OffHeapStateVector parallel = new OffHeapStateVector(14, 6);
+             ParallelContext context = new ParallelContext(4, 1)) {
+            parallel.setParallelContext(context);
+            for (int target = 0; target < 14; target++) {
+                parallel.apply(hadamard, target);
+                sequential.apply(hadamard, target);
+            }
+            parallel.apply(pauliX, 13);
+            sequential.apply(pauliX, 13);
+            assertEquals(1, parallel.normSquared(), 0.000001);
+            for (long i = 0; i < parallel.getDimension(); i += 97) {
+                assertEquals(sequential.getAmplitude(i), parallel.getAmplitude(i));
+            }
+        } finally {
+            sequential.close();
+        }
+    }
+
+    @Test
+    public void testMeasure() {
+        Random random = new Random(210);
+        register.apply(hadamard, 3);
+        boolean one = register.measure(3, random);
+        assertEquals(one ? 1 : 0, register.probabilityOfOne(3), 0.001);
+        assertEquals(1, register.normSquared(), 0.001);
+        assertEquals(one ? 8 : 0, register.sample(random));
+    }
+
+    @Test
+    public void testSetAmplitudeAndNormalize() {
+        register.setAmplitude(0, new Complex(3, 0));
+        register.setAmplitude(21, new Complex(0, 4));
+        assertEquals(25, register.normSquared(), 0.001);
+        register.normalize();
+        assertEquals(0.36, register.probability(0), 0.001);
+        assertEquals(0.64, register.probability(21), 0.001);
+    }
+
+    @Test
+    public void testClose() {
+        register.close();
+        assertTrue(register.isClosed());
+        register.close();
+        try {
+            register.apply(pauliX, 0);
+            fail("Did not catch exception!");
+        } catch (IllegalStateException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testStorageMode() {
+        assertEquals(StorageMode.HEAP, StorageMode.configured());
+        try (Register heap = StorageMode.HEAP.create(3); Register offHeap = StorageMode.OFF_HEAP.create(3)) {
+            assertTrue(heap instanceof StateVector);
+            assertTrue(offHeap instanceof OffHeapStateVector);
+            heap.apply(hadamard, 1);
+            offHeap.apply(hadamard, 1);
+            assertEquals(heap.probabilityOfOne(1), offHeap.probabilityOfOne(1), 0.000001);
+        }
+        System.setProperty(StorageMode.PROPERTY, "off-heap");
+        try {
+            assertEquals(StorageMode.OFF_HEAP, StorageMode.configured());
+        } finally {
+            System.clearProperty(StorageMode.PROPERTY);
+        }
+    }
+}
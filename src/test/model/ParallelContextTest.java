@@ -0,0 +1,117 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelContextTest {
+
+    private ParallelContext context;
+
+    @BeforeEach
+    public void setUp() {
+        context = new ParallelContext(4, 16);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(4, context.getParallelism());
+        assertEquals(16, context.getThreshold());
+        assertEquals(1, ParallelContext.SEQUENTIAL.getParallelism());
+    }
+
+    @Test
+    public void testForEach() {
+        int[] visited = new int[1000];
+        context.forEach(0, visited.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                visited[i]++;
+            }
+        });
+        for (int count : visited) {
+            assertEquals(1, count);
+        }
+    }
+
+    @Test
+    public void testSum() {
+        double sum = context.sum(0, 1000, (from, to) -> {
+            double part = 0;
+            for (int i = from; i < to; i++) {
+                part += i;
+            }
+            return part;
+        });
+        assertEquals(499500, sum, 0.001);
+    }
+
+    @Test
+    public void testThresholdOfOne() {
+        try (ParallelContext finest = new ParallelContext(2, 1)) {
+            int[] visited = new int[5];
+            finest.forEach(0, visited.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    visited[i]++;
+                }
+            });
+            assertArrayEquals(new int[] {1, 1, 1, 1, 1}, visited);
+            assertEquals(10, finest.sum(0, 5, (from, to) -> (double) (to - from) * (from + to - 1) / 2), 0.001);
+            double[] sums = finest.sums(0, 5, 2, (from, to, result) -> {
+                result[0] += to - from;
+                result[1] += 1;
+            });
+            assertEquals(5, sums[0], 0.001);
+            Qubit qubit = new Qubit(new State(new Complex(1, 0), new Complex(0, 1)));
+            qubit.addState(new State(new Complex(0, 1), new Complex(1, 1)));
+            qubit.setParallelContext(finest);
+            qubit.transform(new Gate(1, 1, 0));
+            assertEquals(2, qubit.size());
+        }
+    }
+
+    @Test
+    public void testRegisterMatchesSequential() {
+        StateVector parallel = new StateVector(10);
+        StateVector sequential = new StateVector(10);
+        parallel.setParallelContext(context);
+        Gate hadamard = new Gate(1, 1, 0);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        for (int target = 0; target < 10; target++) {
+            parallel.apply(hadamard, target);
+            sequential.apply(hadamard, target);
+            parallel.apply(gate, 9 - target);
+            sequential.apply(gate, 9 - target);
+        }
+        for (long i = 0; i < parallel.getDimension(); i++) {
+            assertEquals(sequential.getAmplitude(i), parallel.getAmplitude(i));
+        }
+        assertEquals(sequential.probabilityOfOne(3), parallel.probabilityOfOne(3), 0.000001);
+        assertEquals(1, parallel.normSquared(), 0.000001);
+    }
+
+    @Test
+    public void testQubitMatchesSequential() {
+        Qubit parallel = new Qubit();
+        Qubit sequential = new Qubit();
+        parallel.setParallelContext(context);
+        for (int i = 0; i < 100; i++) {
+            State state = new State(new Complex(i, 1), new Complex(2, -i));
+            parallel.addState(state);
+            sequential.addState(state);
+        }
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        parallel.transform(gate);
+        sequential.transform(gate);
+        assertEquals(sequential.getStates(), parallel.getStates());
+        assertEquals(sequential.measureProbability(gate, true), parallel.measureProbability(gate, true), 0.000001);
+        assertEquals(sequential.measureExpectationValue(gate), parallel.measureExpectationValue(gate), 0.000001);
+    }
+}
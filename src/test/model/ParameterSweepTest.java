@@ -0,0 +1,96 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterSweepTest {
+
+    private Qubit qubit;
+    private ParameterSweep sweep;
+
+    @BeforeEach
+    public void setUp() {
+        qubit = new Qubit(new State(new Complex(0.3, 0.7), new Complex(-0.2, 0.5)));
+        qubit.addState(new State(new Complex(0.1, -0.4), new Complex(0.9, 0.2)));
+        sweep = new ParameterSweep(new ParameterSweep.Range(-1, 1, 3), new ParameterSweep.Range(0.5, 2, 4),
+                new ParameterSweep.Range(-3, 3, 5));
+    }
+
+    @Test
+    public void testRange() {
+        ParameterSweep.Range range = new ParameterSweep.Range(-1, 1, 5);
+        assertEquals(-1, range.get(0), 0.000001);
+        assertEquals(-0.5, range.get(1), 0.000001);
+        assertEquals(1, range.get(4), 0.000001);
+        assertEquals(2, new ParameterSweep.Range(2, 7, 1).get(0), 0.000001);
+        try {
+            new ParameterSweep.Range(0, 1, 0);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+        ParameterSweep.Range huge = new ParameterSweep.Range(0, 1, Integer.MAX_VALUE);
+        try {
+            new ParameterSweep(huge, huge, huge);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testRunMatchesGates() throws IOException {
+        assertEquals(60, sweep.size());
+        List<double[]> points = new ArrayList<>();
+        sweep.run(qubit, (a, b, c, probability, expectation) -> points.add(new double[] {a, b, c, probability,
+                expectation}));
+        assertEquals(60, points.size());
+        assertArrayEquals(new double[] {-1, 0.5, -3}, new double[] {points.get(0)[0], points.get(0)[1],
+                points.get(0)[2]}, 0.000001);
+        assertArrayEquals(new double[] {-1, 0.5, -1.5}, new double[] {points.get(1)[0], points.get(1)[1],
+                points.get(1)[2]}, 0.000001);
+        assertArrayEquals(new double[] {-1, 1, -3}, new double[] {points.get(5)[0], points.get(5)[1],
+                points.get(5)[2]}, 0.000001);
+        assertArrayEquals(new double[] {0, 0.5, -3}, new double[] {points.get(20)[0], points.get(20)[1],
+                points.get(20)[2]}, 0.000001);
+        for (double[] point : points) {
+            Gate gate = new Gate(point[0], point[1], point[2]);
+            assertEquals(qubit.measureProbability(gate, true), point[3], 0.000001);
+            assertEquals(qubit.measureExpectationValue(gate), point[4], 0.000001);
+        }
+    }
+
+    @Test
+    public void testExpectations() throws IOException {
+        double[] expectations = sweep.expectations(qubit);
+        List<Double> streamed = new ArrayList<>();
+        sweep.run(qubit, (a, b, c, probability, expectation) -> streamed.add(expectation));
+        for (int i = 0; i < expectations.length; i++) {
+            assertEquals(streamed.get(i), expectations[i], 0.000001);
+        }
+    }
+
+    @Test
+    public void testOrigin() {
+        ParameterSweep origin = new ParameterSweep(new ParameterSweep.Range(0, 0, 1),
+                new ParameterSweep.Range(0, 0, 1), new ParameterSweep.Range(0, 0, 1));
+        assertTrue(Double.isNaN(origin.expectations(qubit)[0]));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        ParameterSweep large = new ParameterSweep(new ParameterSweep.Range(-1, 1, 11),
+                new ParameterSweep.Range(-1, 1, 13), new ParameterSweep.Range(-1, 1, 17));
+        double[] sequential = large.expectations(qubit);
+        try (ParallelContext context = new ParallelContext(4, 7)) {
+            qubit.setParallelContext(context);
+            assertArrayEquals(sequential, large.expectations(qubit), 0.000001);
+        }
+    }
+}
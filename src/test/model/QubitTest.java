@@ -50,6 +50,38 @@ class QubitTest {
         assertEquals(qb.getStates().size(), 0);
     }
 
+    @Test
+    public void testCopyConstructor() {
+        qb1.addState(state2);
+        qb1.transform(new Gate(0.3, -0.5, 0.8));
+        Qubit copy = new Qubit(qb1);
+        assertEquals(qb1.getStates(), copy.getStates());
+        assertEquals(qb1.getScaleFactor(), copy.getScaleFactor(), 0.000001);
+        copy.transform(pauliZ);
+        copy.addState(state1);
+        assertEquals(2, qb1.size());
+        assertEquals(3, copy.size());
+        assertNotEquals(qb1.getState(0), copy.getState(0));
+    }
+
+    @Test
+    public void testBlochVector() {
+        double h = 1 / Math.sqrt(2);
+        assertArrayEquals(new double[] {0, 0, 1}, new Qubit(new State(comp1, new Complex(0, 0))).getBlochVector(),
+                0.000001);
+        assertArrayEquals(new double[] {1, 0, 0}, new Qubit(new State(new Complex(h, 0), new Complex(h, 0)))
+                .getBlochVector(), 0.000001);
+        assertArrayEquals(new double[] {0, 1, 0}, new Qubit(new State(new Complex(1, 0), new Complex(0, 1)))
+                .getBlochVector(), 0.000001);
+        Qubit mixed = new Qubit(new State(comp1, new Complex(0, 0)));
+        mixed.addState(new State(new Complex(0, 0), comp1));
+        assertArrayEquals(new double[] {0, 0, 0}, mixed.getBlochVector(), 0.000001);
+        qb2.transform(new Gate(0.3, -0.5, 0.8));
+        double[] vector = qb2.getBlochVector();
+        assertEquals(1, vector[0] * vector[0] + vector[1] * vector[1] + vector[2] * vector[2], 0.000001);
+        assertEquals(vector[2], qb2.measureExpectationValue(pauliZ), 0.000001);
+    }
+
     @Test
     public void testSetState() {
         qb1.addState(state2);
@@ -84,7 +116,71 @@ class QubitTest {
         assertEquals(qb1.getStates().get(1).getFirstNumber().getY(), 1.0, 0.01);
         assertEquals(qb1.getStates().get(1).getSecondNumber().getX(), 3.0, 0.01);
         assertEquals(qb1.getStates().get(1).getSecondNumber().getY(), 4.0, 0.01);
-        assertEquals(qb1.getScaleFactor(), 1 / Math.sqrt(39), 0.01);
+        assertEquals(qb1.getScaleFactor(), 1 / Math.sqrt(29), 0.01);
+    }
+
+    @Test
+    public void testRemoveStateKeepsScaleFactor() {
+        for (int i = 0; i < 1000; i++) {
+            qb1.addState(new State(new Complex(i * 1000, 0.001), new Complex(0.001, i)));
+        }
+        qb1.addState(state2);
+        for (int i = 0; i < 1000; i++) {
+            try {
+                qb1.removeState(new State(new Complex(i * 1000, 0.001), new Complex(0.001, i)));
+            } catch (NoStateToRemoveException e) {
+                fail("Unexpected NoStateToRemoveException");
+            }
+        }
+        assertEquals(2, qb1.size());
+        assertEquals(1 / Math.sqrt(29), qb1.getScaleFactor(), 0.000001);
+        double[] probabilities = qb1.measureProbabilities(pauliZ);
+        assertEquals(1, probabilities[0] + probabilities[1], 0.000001);
+    }
+
+    @Test
+    public void testRemoveStateMovesLastState() {
+        State anotherState = new State(comp1, comp4);
+        qb1.addState(anotherState);
+        qb1.addState(state2);
+        try {
+            qb1.removeState(state1);
+        } catch (NoStateToRemoveException e) {
+            fail("Unexpected NoStateToRemoveException");
+        }
+        assertEquals(2, qb1.size());
+        assertEquals(state2, qb1.getState(0));
+        assertEquals(anotherState, qb1.getState(1));
+    }
+
+    @Test
+    public void testMergeDuplicates() {
+        assertFalse(qb1.isMergingDuplicates());
+        qb1.setMergeDuplicates(true);
+        qb1.addState(state2);
+        qb1.addState(new State(new Complex(1.0001, 0), new Complex(0, 0.9999)));
+        assertEquals(2, qb1.size());
+        assertEquals(1 / Math.sqrt(31), qb1.getScaleFactor(), 0.0001);
+        assertEquals(state1.multiplyByConstant(Math.sqrt(2)), qb1.getState(0));
+        int[] histogram = qb1.measure(100000, 210);
+        assertEquals(4.0 / 31, histogram[0] / 100000.0, 0.01);
+    }
+
+    @Test
+    public void testMergeThenRemove() throws NoStateToRemoveException {
+        State third = new State(new Complex(0.3, 0), new Complex(-2, 1));
+        qb1.setMergeDuplicates(true);
+        qb1.addState(state2);
+        qb1.addState(third);
+        // each merge lengthens the first state, moving it to a new bucket of the index
+        for (int i = 0; i < 20; i++) {
+            qb1.addState(qb1.getState(0));
+        }
+        assertEquals(3, qb1.size());
+        qb1.removeState(third);
+        qb1.removeState(state2);
+        assertEquals(1, qb1.size());
+        assertEquals(1, qb1.measureProbability(new Gate(0, 0, 1), true), 0.000001);
     }
 
     @Test
@@ -113,6 +209,19 @@ class QubitTest {
         assertEquals(qb.getStates().size(), 1);
     }
 
+    @Test
+    public void testMeasureShots() {
+        qb1.addState(state2);
+        qb1.addState(new State(new Complex(0.05, 0), new Complex(0, 0)));
+        int[] histogram = qb1.measure(100000);
+        assertEquals(3, histogram.length);
+        assertEquals(100000, histogram[0] + histogram[1] + histogram[2]);
+        double total = 29.0025;
+        assertEquals(2 / total, histogram[0] / 100000.0, 0.005);
+        assertEquals(27 / total, histogram[1] / 100000.0, 0.005);
+        assertTrue(histogram[2] > 0);
+    }
+
     @Test
     public void testTransformSingleQubit() {
         Gate pauliX = new Gate(0, 1, 0);
@@ -140,6 +249,25 @@ class QubitTest {
         assertEquals(qb1.getStates().get(1).getSecondNumber().getY(), 1, 0.01);
     }
 
+    @Test
+    public void testTransformSequence() {
+        Gate hadamard = new Gate(1, 1, 0);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        qb2.addState(state1);
+        qb1.addState(state2);
+        List<Gate> gates = new ArrayList<>();
+        gates.add(hadamard);
+        gates.add(gate);
+        gates.add(pauliZ);
+        qb1.transform(gates);
+        qb2.transform(hadamard);
+        qb2.transform(gate);
+        qb2.transform(pauliZ);
+        assertEquals(qb2.getScaleFactor(), qb1.getScaleFactor(), 0.000001);
+        assertEquals(qb2.getState(0), qb1.getState(1));
+        assertEquals(qb2.getState(1), qb1.getState(0));
+    }
+
     @Test
     public void testMeasureSpinPositiveZ() {
         Complex c1 = new Complex(1, 0);
@@ -168,6 +296,16 @@ class QubitTest {
         assertEquals(eigenQB.measureProbability(pauliZ, false), 0.5, 0.01);
     }
 
+    @Test
+    public void testMeasureProbabilities() {
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        qb1.addState(state2);
+        double[] probabilities = qb1.measureProbabilities(gate);
+        assertEquals(qb1.measureProbability(gate, true), probabilities[0], 0.000001);
+        assertEquals(qb1.measureProbability(gate, false), probabilities[1], 0.000001);
+        assertEquals(1, probabilities[0] + probabilities[1], 0.000001);
+    }
+
     @Test
     public void testMeasureExpectationValueZ() {
         Complex c1 = new Complex(1, 0);
@@ -184,6 +322,54 @@ class QubitTest {
         assertEquals(eigenQB.measureExpectationValue(pauliZ), 0, 0.01);
     }
 
+    @Test
+    public void testDensityFollowsChanges() throws NoStateToRemoveException {
+        Gate gate = new Gate(new Complex(0.2, 0.1), new Complex(-0.7, 0.4), new Complex(0.3, -0.9),
+                new Complex(0.5, 0.6));
+        Gate observable = new Gate(0.3, -0.5, 0.8);
+        qb1.setMergeDuplicates(true);
+        qb1.addState(state2);
+        qb1.addState(new State(new Complex(-2, 1), new Complex(0.5, 0)));
+        qb1.addState(state2);
+        assertDensityMatchesStates(qb1, gate, observable);
+        qb1.removeState(state1);
+        assertDensityMatchesStates(qb1, gate, observable);
+        qb1.transform(gate);
+        assertDensityMatchesStates(qb1, gate, observable);
+        assertDensityMatchesStates(new Qubit(qb1), gate, observable);
+    }
+
+    //EFFECTS: checks the probabilities and expectation values of the qubit against sums over its states
+    private void assertDensityMatchesStates(Qubit qubit, Gate gate, Gate observable) {
+        State positive = observable.getEigenState(true);
+        State negative = observable.getEigenState(false);
+        State posConjugate = new State(positive.getFirstNumber().conjugate(), positive.getSecondNumber().conjugate());
+        State negConjugate = new State(negative.getFirstNumber().conjugate(), negative.getSecondNumber().conjugate());
+        double expectation = 0;
+        double posProbability = 0;
+        double negProbability = 0;
+        for (State s : qubit.getStates()) {
+            State conjugate = new State(s.getFirstNumber().conjugate(), s.getSecondNumber().conjugate());
+            expectation += s.innerProduct(gate.multiply(conjugate)).getX();
+            posProbability += Math.pow(posConjugate.innerProduct(s).absoluteValue(), 2);
+            negProbability += Math.pow(negConjugate.innerProduct(s).absoluteValue(), 2);
+        }
+        double constant = qubit.getScaleFactor() * qubit.getScaleFactor();
+        assertEquals(expectation * constant * gate.getScale(), qubit.measureExpectationValue(gate), 0.000001);
+        assertEquals(posProbability * constant, qubit.measureProbability(observable, true), 0.000001);
+        assertEquals(negProbability * constant, qubit.measureProbability(observable, false), 0.000001);
+    }
+
+    @Test
+    public void testGetState() {
+        qb1.addState(state2);
+        assertEquals(2, qb1.size());
+        assertEquals(state1, qb1.getState(0));
+        assertEquals(state2, qb1.getState(1));
+        qb1.getStates().clear();
+        assertEquals(2, qb1.size());
+    }
+
     @Test
     public void testIterator() {
         qb1.addState(state2);
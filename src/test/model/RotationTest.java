@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RotationTest {
+
+    private static final double H = 1 / Math.sqrt(2);
+
+    @Test
+    public void testFixedGates() {
+        assertGate(1, 0, 0, 0, 0, 0, 1, 0, Rotation.IDENTITY);
+        assertGate(0, 0, 1, 0, 1, 0, 0, 0, Rotation.X);
+        assertGate(0, 0, 0, -1, 0, 1, 0, 0, Rotation.Y);
+        assertGate(1, 0, 0, 0, 0, 0, -1, 0, Rotation.Z);
+        assertGate(H, 0, H, 0, H, 0, -H, 0, Rotation.H);
+        assertGate(1, 0, 0, 0, 0, 0, 0, 1, Rotation.S);
+        assertGate(1, 0, 0, 0, 0, 0, H, H, Rotation.T);
+        assertSame(Rotation.H.toGate(), Rotation.H.toGate());
+    }
+
+    @Test
+    public void testStandardRotations() {
+        double c = Math.cos(0.35);
+        double s = Math.sin(0.35);
+        assertGate(c, 0, 0, -s, 0, -s, c, 0, Rotation.rx(0.7));
+        assertGate(c, 0, -s, 0, s, 0, c, 0, Rotation.ry(0.7));
+        assertGate(c, -s, 0, 0, 0, 0, c, s, Rotation.rz(0.7));
+        assertGate(c, 0, 0, -s, 0, -s, c, 0, Rotation.about(2, 0, 0, 0.7));
+        assertEquals(0.7, Rotation.about(1, 2, 3, 0.7).getAngle(), 0.000001);
+        try {
+            Rotation.about(0, 0, 0, 1);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testThenMatchesCompose() {
+        Rotation first = Rotation.rx(0.3).then(Rotation.H);
+        Rotation second = Rotation.euler(0.2, -1.1, 0.9).then(Rotation.T);
+        Gate expected = first.toGate().compose(second.toGate());
+        Gate actual = first.then(second).toGate();
+        assertEquals(expected.getTopLeft(), actual.getTopLeft());
+        assertEquals(expected.getTopRight(), actual.getTopRight());
+        assertEquals(expected.getBotLeft(), actual.getBotLeft());
+        assertEquals(expected.getBotRight(), actual.getBotRight());
+    }
+
+    @Test
+    public void testComposition() {
+        assertGate(1, 0, 0, 0, 0, 0, -1, 0, Rotation.S.then(Rotation.S));
+        assertGate(1, 0, 0, 0, 0, 0, 0, 1, Rotation.T.then(Rotation.T));
+        assertGate(1, 0, 0, 0, 0, 0, -1, 0, Rotation.H.then(Rotation.X).then(Rotation.H));
+        assertGate(1, 0, 0, 0, 0, 0, 1, 0, Rotation.euler(0.4, 1.2, -0.8).then(Rotation.euler(0.4, 1.2, -0.8)
+                .inverse()));
+        Rotation turn = Rotation.IDENTITY;
+        for (int i = 0; i < 1000; i++) {
+            turn = turn.then(Rotation.ry(Math.PI / 500));
+        }
+        assertEquals(1, Math.abs(turn.getW()), 0.000001);
+    }
+
+    @Test
+    public void testRotateQubit() {
+        Qubit qubit = new Qubit(new State(new Complex(1, 0), new Complex(0, 0)));
+        qubit.rotate(Rotation.H);
+        assertArrayEquals(new double[] {1, 0, 0}, qubit.getBlochVector(), 0.000001);
+        qubit.rotate(Rotation.S);
+        assertArrayEquals(new double[] {0, 1, 0}, qubit.getBlochVector(), 0.000001);
+        qubit.rotate(Rotation.rx(Math.PI / 2));
+        assertArrayEquals(new double[] {0, 0, 1}, qubit.getBlochVector(), 0.000001);
+    }
+
+    //EFFECTS: checks that the matrix of the rotation, as rows of (re, im) pairs, is the given one
+    private static void assertGate(double re00, double im00, double re01, double im01, double re10, double im10,
+                                   double re11, double im11, Rotation rotation) {
+        Gate gate = rotation.toGate();
+        assertEquals(new Complex(re00, im00), gate.getTopLeft());
+        assertEquals(new Complex(re01, im01), gate.getBotLeft());
+        assertEquals(new Complex(re10, im10), gate.getTopRight());
+        assertEquals(new Complex(re11, im11), gate.getBotRight());
+        assertEquals(1, gate.getScale(), 0.000001);
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShotSamplerTest {
+
+    private AliasSampler table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new AliasSampler(new double[] {1, 2, 3, 4});
+    }
+
+    @Test
+    public void testSampleCounts() {
+        int shots = 3 * ShotSampler.BLOCK_SIZE + 17;
+        int[] histogram = new ShotSampler(table, ParallelContext.SEQUENTIAL).sample(shots, 210);
+        int total = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            total += histogram[i];
+            assertEquals((i + 1) / 10.0, histogram[i] / (double) shots, 0.01);
+        }
+        assertEquals(shots, total);
+        assertEquals(0, new ShotSampler(table, ParallelContext.SEQUENTIAL).sample(0, 210)[0]);
+    }
+
+    @Test
+    public void testSameSeedSameHistogram() {
+        int shots = 10 * ShotSampler.BLOCK_SIZE + 5;
+        int[] sequential = new ShotSampler(table, ParallelContext.SEQUENTIAL).sample(shots, 42);
+        try (ParallelContext context = new ParallelContext(4)) {
+            int[] parallel = new ShotSampler(table, context).sample(shots, 42);
+            assertArrayEquals(sequential, parallel);
+        }
+        try (ParallelContext context = new ParallelContext(3)) {
+            assertArrayEquals(sequential, new ShotSampler(table, context).sample(shots, 42));
+        }
+        assertFalse(Arrays.equals(sequential,
+                new ShotSampler(table, ParallelContext.SEQUENTIAL).sample(shots, 43)));
+    }
+
+    @Test
+    public void testBlocksNearMaxShots() {
+        int max = Integer.MAX_VALUE;
+        int blocks = ShotSampler.blockCount(max);
+        assertEquals(max / ShotSampler.BLOCK_SIZE + 1, blocks);
+        assertEquals(ShotSampler.BLOCK_SIZE, ShotSampler.blockLength(max, blocks - 2));
+        assertEquals(max % ShotSampler.BLOCK_SIZE, ShotSampler.blockLength(max, blocks - 1));
+        assertEquals(0, ShotSampler.blockCount(0));
+        assertEquals(1, ShotSampler.blockCount(ShotSampler.BLOCK_SIZE));
+        assertEquals(2, ShotSampler.blockCount(ShotSampler.BLOCK_SIZE + 1));
+        assertEquals(1, ShotSampler.blockLength(ShotSampler.BLOCK_SIZE + 1, 1));
+        assertArrayEquals(new int[4], new ShotSampler(table, ParallelContext.SEQUENTIAL).sample(0, 3));
+    }
+
+    @Test
+    public void testQubitSeededMeasure() {
+        Qubit qubit = new Qubit(new State(new Complex(1, 0), new Complex(0, 1)));
+        qubit.addState(new State(new Complex(1, 1), new Complex(3, 4)));
+        assertArrayEquals(qubit.measure(1000, 7), qubit.measure(1000, 7));
+        qubit.setSeed(7);
+        State first = qubit.measure().getState(0);
+        qubit.setSeed(7);
+        assertEquals(first, qubit.measure().getState(0));
+    }
+}
@@ -0,0 +1,153 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseStateVectorTest {
+
+    private SparseStateVector register;
+
+    private Gate pauliX;
+    private Gate hadamard;
+
+    @BeforeEach
+    public void setUp() {
+        register = new SparseStateVector(5);
+        pauliX = new Gate(0, 1, 0);
+        hadamard = new Gate(1, 1, 0);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(5, register.getNumQubits());
+        assertEquals(32, register.getDimension());
+        assertEquals(1, register.getStoredCount());
+        assertEquals(new Complex(1, 0), register.getAmplitude(0));
+        assertEquals(new Complex(0, 0), register.getAmplitude(31));
+        assertEquals(1, register.normSquared(), 0.001);
+        assertEquals(1L << 62, new SparseStateVector(SparseStateVector.MAX_QUBITS).getDimension());
+        try {
+            new SparseStateVector(SparseStateVector.MAX_QUBITS + 1);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+        try {
+            register.getAmplitude(32);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testPermutationsStaySparse() {
+        SparseStateVector large = new SparseStateVector(60);
+        for (int target = 0; target < 60; target += 3) {
+            large.apply(pauliX, target);
+        }
+        large.apply(hadamard, 59);
+        assertEquals(2, large.getStoredCount());
+        assertFalse(large.isDense());
+        long index = 0;
+        for (int target = 0; target < 60; target += 3) {
+            index |= 1L << target;
+        }
+        assertEquals(0.5, large.probability(index), 0.000001);
+        assertEquals(0.5, large.probability(index | 1L << 59), 0.000001);
+        assertEquals(1, large.probabilityOfOne(3), 0.000001);
+        assertEquals(0.5, large.probabilityOfOne(59), 0.000001);
+        large.apply(hadamard, 59);
+        assertEquals(1, large.getStoredCount());
+        assertEquals(1, large.probability(index), 0.000001);
+    }
+
+    @Test
+    public void testMatchesStateVector() {
+        SparseStateVector sparse = new SparseStateVector(5, SparseStateVector.DEFAULT_EPSILON, 2);
+        StateVector expected = new StateVector(5);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        int[] targets = {0, 4, 2, 3, 1, 4, 0};
+        for (int target : targets) {
+            sparse.apply(hadamard, target);
+            expected.apply(hadamard, target);
+            sparse.apply(gate, 4 - target);
+            expected.apply(gate, 4 - target);
+        }
+        assertFalse(sparse.isDense());
+        for (long i = 0; i < sparse.getDimension(); i++) {
+            assertEquals(expected.getAmplitude(i), sparse.getAmplitude(i));
+        }
+        for (int target = 0; target < 5; target++) {
+            assertEquals(expected.probabilityOfOne(target), sparse.probabilityOfOne(target), 0.000001);
+        }
+    }
+
+    @Test
+    public void testTurnsDense() {
+        StateVector expected = new StateVector(5);
+        List<Gate> gates = new ArrayList<>();
+        int[] targets = {0, 1, 2, 0, 3};
+        for (int target : targets) {
+            gates.add(target == 0 ? new Gate(0.3, -0.5, 0.8) : hadamard);
+        }
+        register.apply(gates.subList(0, 2), targets);
+        assertFalse(register.isDense());
+        register.apply(gates.subList(2, 5), new int[] {2, 0, 3});
+        assertTrue(register.isDense());
+        assertEquals(32, register.getStoredCount());
+        expected.apply(gates, targets);
+        for (long i = 0; i < register.getDimension(); i++) {
+            assertEquals(expected.getAmplitude(i), register.getAmplitude(i));
+        }
+        assertEquals(1, register.normSquared(), 0.000001);
+    }
+
+    @Test
+    public void testPruning() {
+        assertEquals(SparseStateVector.DEFAULT_EPSILON, register.getEpsilon());
+        SparseStateVector pruning = new SparseStateVector(2, 0.01, 2);
+        assertEquals(0.01, pruning.getEpsilon());
+        pruning.setAmplitude(3, new Complex(0.001, 0.001));
+        assertEquals(1, pruning.getStoredCount());
+        pruning.setAmplitude(2, new Complex(pruning.getEpsilon() * 0.99, 0));
+        assertEquals(1, pruning.getStoredCount());
+        assertEquals(new Complex(0, 0), pruning.getAmplitude(2));
+        pruning.setAmplitude(2, new Complex(0, pruning.getEpsilon() * 1.01));
+        assertEquals(2, pruning.getStoredCount());
+        pruning.setAmplitude(2, new Complex(0, 0));
+        assertEquals(1, pruning.getStoredCount());
+        pruning.setAmplitude(3, new Complex(0.5, 0));
+        assertEquals(2, pruning.getStoredCount());
+        pruning.setAmplitude(0, new Complex(0, 0));
+        assertEquals(1, pruning.getStoredCount());
+        pruning.normalize();
+        assertEquals(1, pruning.probability(3), 0.000001);
+    }
+
+    @Test
+    public void testMeasure() {
+        Random random = new Random(210);
+        register.apply(hadamard, 0);
+        register.apply(pauliX, 4);
+        boolean one = register.measure(0, random);
+        assertEquals(one ? 1 : 0, register.probabilityOfOne(0), 0.001);
+        assertEquals(1, register.getStoredCount());
+        assertEquals(1, register.normSquared(), 0.001);
+        assertEquals(16 + (one ? 1 : 0), register.sample(random));
+    }
+
+    @Test
+    public void testStorageMode() {
+        try (Register sparse = StorageMode.SPARSE.create(3)) {
+            assertTrue(sparse instanceof SparseStateVector);
+            assertEquals(3, sparse.getNumQubits());
+        }
+    }
+}
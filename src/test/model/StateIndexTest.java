@@ -0,0 +1,70 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StateIndexTest {
+
+    private double[] terms;
+    private StateIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        terms = new double[] {1, 0, 0, 1, 0.0019, -0.0021, 3, 4, 0.5, 0.5, 0.5, 0.5};
+        index = new StateIndex(terms, 3);
+    }
+
+    @Test
+    public void testFindWithinThreshold() {
+        assertEquals(0, index.find(terms, 1, 0, 0, 1));
+        assertEquals(0, index.find(terms, 1.0009, -0.0009, 0.0009, 0.9991));
+        assertEquals(1, index.find(terms, 0.0021, -0.0019, 3, 4));
+        assertEquals(1, index.find(terms, 0.0011, -0.0029, 3, 4));
+        assertEquals(2, index.find(terms, 0.5, 0.5, 0.5, 0.5));
+        assertEquals(-1, index.find(terms, 0.0031, -0.0021, 3, 4));
+        assertEquals(-1, index.find(terms, 0, 1, 1, 0));
+    }
+
+    @Test
+    public void testRemoveAndMove() {
+        index.remove(0);
+        System.arraycopy(terms, 8, terms, 0, 4);
+        index.move(2, 0);
+        assertEquals(-1, index.find(terms, 1, 0, 0, 1));
+        assertEquals(0, index.find(terms, 0.5, 0.5, 0.5, 0.5));
+        assertEquals(1, index.find(terms, 0.0019, -0.0021, 3, 4));
+    }
+
+    @Test
+    public void testRemoveAndAddAgain() {
+        // each state taken out and put back in its own bucket, so buckets must be freed for the index to keep working
+        for (int i = 0; i < 1000; i++) {
+            int state = i % 3;
+            index.remove(state);
+            terms[4 * state] += 0.01;
+            index.add(terms, state, 3);
+        }
+        for (int state = 0; state < 3; state++) {
+            int i = 4 * state;
+            assertEquals(state, index.find(terms, terms[i], terms[i + 1], terms[i + 2], terms[i + 3]));
+        }
+    }
+
+    @Test
+    public void testAddManyStates() {
+        double[] many = new double[4000];
+        for (int i = 0; i < 1000; i++) {
+            many[4 * i] = i;
+            many[4 * i + 3] = -i * 0.01;
+        }
+        StateIndex grown = new StateIndex(many, 0);
+        for (int i = 0; i < 1000; i++) {
+            grown.add(many, i, i + 1);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, grown.find(many, i, 0, 0, -i * 0.01));
+        }
+    }
+}
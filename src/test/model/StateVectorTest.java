@@ -0,0 +1,129 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateVectorTest {
+
+    private StateVector register;
+
+    private Gate pauliX;
+    private Gate hadamard;
+
+    @BeforeEach
+    public void setUp() {
+        register = new StateVector(3);
+        pauliX = new Gate(0, 1, 0);
+        hadamard = new Gate(1, 1, 0);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(3, register.getNumQubits());
+        assertEquals(8, register.getDimension());
+        assertEquals(new Complex(1, 0), register.getAmplitude(0));
+        assertEquals(1, register.normSquared(), 0.001);
+        try {
+            new StateVector(StateVector.MAX_QUBITS + 1);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testStateConstructor() {
+        State state = new State(new Complex(3, 0), new Complex(0, 4));
+        StateVector single = new StateVector(state);
+        assertEquals(new State(new Complex(0.6, 0), new Complex(0, 0.8)), single.toState());
+        try {
+            register.toState();
+            fail("Did not catch exception!");
+        } catch (IllegalStateException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testApplyTarget() {
+        register.apply(pauliX, 1);
+        assertEquals(1, register.probability(2), 0.001);
+        register.apply(pauliX, 2);
+        assertEquals(1, register.probability(6), 0.001);
+        register.apply(hadamard, 0);
+        assertEquals(0.5, register.probability(6), 0.001);
+        assertEquals(0.5, register.probability(7), 0.001);
+        assertEquals(1, register.normSquared(), 0.001);
+        try {
+            register.apply(pauliX, 3);
+            fail("Did not catch exception!");
+        } catch (IllegalArgumentException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testApplyMatchesGateMultiply() {
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        State state = new State(new Complex(1, 2), new Complex(-1, 0.5));
+        StateVector single = new StateVector(state);
+        single.apply(gate, 0);
+        State expected = gate.multiply(state).multiplyByConstant(gate.getScale() * state.normalize());
+        assertEquals(expected, single.toState());
+    }
+
+    @Test
+    public void testApplySequence() {
+        StateVector expected = new StateVector(3);
+        Gate gate = new Gate(0.3, -0.5, 0.8);
+        List<Gate> gates = new ArrayList<>();
+        gates.add(hadamard);
+        gates.add(gate);
+        gates.add(pauliX);
+        gates.add(gate);
+        register.apply(gates, new int[] {0, 0, 2, 0});
+        expected.apply(hadamard, 0);
+        expected.apply(gate, 0);
+        expected.apply(pauliX, 2);
+        expected.apply(gate, 0);
+        for (long i = 0; i < register.getDimension(); i++) {
+            assertEquals(expected.getAmplitude(i), register.getAmplitude(i));
+        }
+    }
+
+    @Test
+    public void testProbabilityOfOne() {
+        assertEquals(0, register.probabilityOfOne(0), 0.001);
+        register.apply(hadamard, 0);
+        register.apply(pauliX, 2);
+        assertEquals(0.5, register.probabilityOfOne(0), 0.001);
+        assertEquals(0, register.probabilityOfOne(1), 0.001);
+        assertEquals(1, register.probabilityOfOne(2), 0.001);
+    }
+
+    @Test
+    public void testMeasure() {
+        Random random = new Random(210);
+        register.apply(hadamard, 0);
+        boolean one = register.measure(0, random);
+        assertEquals(one ? 1 : 0, register.probabilityOfOne(0), 0.001);
+        assertEquals(1, register.normSquared(), 0.001);
+        assertEquals(one ? 1 : 0, register.sample(random));
+    }
+
+    @Test
+    public void testSetAmplitudeAndNormalize() {
+        register.setAmplitude(0, new Complex(3, 0));
+        register.setAmplitude(5, new Complex(0, 4));
+        assertEquals(25, register.normSquared(), 0.001);
+        register.normalize();
+        assertEquals(0.36, register.probability(0), 0.001);
+        assertEquals(0.64, register.probability(5), 0.001);
+    }
+}
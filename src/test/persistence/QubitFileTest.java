@@ -0,0 +1,175 @@
+package persistence;
+
+import exceptions.InvalidFileException;
+import model.Complex;
+import model.Gate;
+import model.Qubit;
+import model.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QubitFileTest {
+
+    private Qubit qubit;
+    private File file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        qubit = new Qubit(new State(new Complex(1, 0), new Complex(0, 1)));
+        qubit.addState(new State(new Complex(1, 1), new Complex(3, 4)));
+        qubit.transform(new Gate(0.3, -0.5, 0.8));
+        file = Files.createTempFile("qubit", ".bin").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void testSaveAndLoadBinary() throws IOException {
+        QubitFile.save(qubit, file);
+        assertTrue(QubitFile.isBinary(file));
+        assertEquals(16 + 2 * 32, file.length());
+        Qubit loaded = QubitFile.load(file);
+        assertEquals(qubit.getStates(), loaded.getStates());
+        assertEquals(qubit.getScaleFactor(), loaded.getScaleFactor(), 0.000001);
+    }
+
+    @Test
+    public void testSaveAndLoadEmpty() throws IOException {
+        QubitFile.save(new Qubit(), file);
+        assertEquals(0, QubitFile.load(file).size());
+    }
+
+    @Test
+    public void testSaveAndLoadJson() throws IOException {
+        QubitFile.saveJson(qubit, file);
+        assertFalse(QubitFile.isBinary(file));
+        assertEquals(qubit.getStates(), QubitFile.load(file).getStates());
+    }
+
+    @Test
+    public void testLoadLegacyJson() throws IOException {
+        Qubit saved = QubitFile.load(new File("./data/Saved.json"));
+        assertEquals(2, saved.size());
+        assertEquals(new State(new Complex(10, 12), new Complex(0, -6)), saved.getState(0));
+        Qubit withScale = QubitFile.load(new File("./data/qubit.txt"));
+        assertEquals(3, withScale.size());
+        assertEquals(1 / Math.sqrt(6), withScale.getScaleFactor(), 0.000001);
+    }
+
+    @Test
+    public void testProgress() throws IOException {
+        long[] last = new long[2];
+        ProgressListener listener = (done, total) -> {
+            assertTrue(done <= total);
+            last[0] = done;
+            last[1] = total;
+        };
+        QubitFile.saveJson(qubit, file, listener);
+        assertEquals(2, last[0]);
+        assertEquals(2, last[1]);
+        QubitFile.load(file, listener);
+        assertEquals(file.length(), last[0]);
+        assertEquals(file.length(), last[1]);
+        QubitFile.save(qubit, file, listener);
+        assertEquals(2, last[0]);
+        assertEquals(2, last[1]);
+        QubitFile.load(file, listener);
+        assertEquals(16 + 2 * 32, last[0]);
+    }
+
+    @Test
+    public void testLoadJsonSkipsUnknownFields() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(("[{\"note\":[1,{\"a\":2}],\"firstNumber\":{\"re\":3.0,\"im\":0.0,\"unit\":\"x\"},"
+                    + "\"secondNumber\":{\"re\":0.0,\"im\":4.0},\"scale\":0.2}]").getBytes());
+        }
+        Qubit loaded = QubitFile.load(file);
+        assertEquals(1, loaded.size());
+        assertEquals(new State(new Complex(3, 0), new Complex(0, 4)), loaded.getState(0));
+        assertEquals(0.2, loaded.getScaleFactor(), 0.000001);
+    }
+
+    @Test
+    public void testLoadInvalid() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("QBIT".getBytes());
+            out.write(new byte[] {9, 0, 0, 0});
+        }
+        try {
+            QubitFile.load(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("not a qubit".getBytes());
+        }
+        try {
+            QubitFile.load(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("[{\"firstNumber\":{\"re\":1.0".getBytes());
+        }
+        try {
+            QubitFile.load(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testLoadOverflowingCount() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("QBIT".getBytes()).putInt(QubitFile.VERSION).putLong(1L << 59);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(header.array());
+        }
+        try {
+            QubitFile.load(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testLoadJsonMissingNumber() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(("[{\"firstNumber\":{\"re\":1.0,\"im\":0.0},\"secondNumber\":{\"re\":0.0,\"im\":1.0}},"
+                    + "{\"firstNumber\":{\"re\":2.0,\"im\":0.0}}]").getBytes());
+        }
+        try {
+            QubitFile.load(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("[{\"secondNumber\":{\"re\":0.0,\"im\":1.0}}]".getBytes());
+        }
+        try {
+            QubitFile.load(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+    }
+}
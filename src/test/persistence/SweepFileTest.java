@@ -0,0 +1,118 @@
+package persistence;
+
+import exceptions.InvalidFileException;
+import model.Complex;
+import model.Gate;
+import model.ParameterSweep;
+import model.Qubit;
+import model.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SweepFileTest {
+
+    private Qubit qubit;
+    private ParameterSweep sweep;
+    private File file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        qubit = new Qubit(new State(new Complex(1, 0), new Complex(0, 1)));
+        sweep = new ParameterSweep(new ParameterSweep.Range(-1, 1, 2), new ParameterSweep.Range(0, 1, 3),
+                new ParameterSweep.Range(1, 1, 1));
+        file = Files.createTempFile("sweep", ".bin").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void testSaveCsv() throws IOException {
+        SweepFile.saveCsv(sweep, qubit, file);
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(7, lines.size());
+        assertEquals(SweepFile.CSV_HEADER, lines.get(0));
+        String[] first = lines.get(1).split(",");
+        assertEquals(-1, Double.parseDouble(first[0]), 0.000001);
+        assertEquals(0, Double.parseDouble(first[1]), 0.000001);
+        assertEquals(1, Double.parseDouble(first[2]), 0.000001);
+        Gate gate = new Gate(-1, 0, 1);
+        assertEquals(qubit.measureProbability(gate, true), Double.parseDouble(first[3]), 0.000001);
+        assertEquals(qubit.measureExpectationValue(gate), Double.parseDouble(first[4]), 0.000001);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        SweepFile.save(sweep, qubit, file);
+        ParameterSweep loaded = SweepFile.loadSweep(file);
+        assertEquals(6, loaded.size());
+        assertEquals(-1, loaded.getRangeA().getFrom(), 0.000001);
+        assertEquals(3, loaded.getRangeB().getSteps());
+        double[] results = SweepFile.load(file);
+        double[] expectations = sweep.expectations(qubit);
+        assertEquals(12, results.length);
+        for (int i = 0; i < expectations.length; i++) {
+            assertEquals((1 + expectations[i]) / 2, results[2 * i], 0.000001);
+            assertEquals(expectations[i], results[2 * i + 1], 0.000001);
+        }
+    }
+
+    @Test
+    public void testLoadInvalid() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("not a sweep".getBytes(StandardCharsets.US_ASCII));
+        }
+        try {
+            SweepFile.load(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+        SweepFile.save(sweep, qubit, file);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.getChannel().truncate(file.length() - 8);
+        }
+        try {
+            SweepFile.loadSweep(file);
+            fail("Did not catch exception!");
+        } catch (InvalidFileException e) {
+            // all good!
+        }
+    }
+
+    @Test
+    public void testLoadHugeStepCounts() throws IOException {
+        // 2^20 steps each make 2^60 points, whose size in bytes wraps to 0; the most steps make too many for a long
+        for (int steps : new int[] {1 << 20, Integer.MAX_VALUE}) {
+            ByteBuffer header = ByteBuffer.allocate(4 + 4 + 3 * 20).order(ByteOrder.LITTLE_ENDIAN);
+            header.put("QSWP".getBytes(StandardCharsets.US_ASCII)).putInt(SweepFile.VERSION);
+            for (int range = 0; range < 3; range++) {
+                header.putDouble(0).putDouble(1).putInt(steps);
+            }
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(header.array());
+            }
+            try {
+                SweepFile.load(file);
+                fail("Did not catch exception!");
+            } catch (InvalidFileException e) {
+                // all good!
+            }
+        }
+    }
+}